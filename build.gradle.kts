@@ -6,6 +6,7 @@ plugins {
     id("java-library")
     id("maven-publish")
     id("com.github.ben-manes.versions") version "0.53.0"
+    id("me.champeau.jmh") version "0.7.3"
 }
 
 group = "no.novari"
@@ -46,6 +47,7 @@ dependencies {
     annotationProcessor("org.projectlombok:lombok")
 
     implementation("org.ehcache:ehcache:3.11.1")
+    implementation("com.github.ben-manes.caffeine:caffeine")
 
     testImplementation("org.springframework.boot:spring-boot-starter-test")
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
@@ -55,6 +57,15 @@ tasks.test {
     useJUnitPlatform()
 }
 
+jmh {
+    jmhVersion.set("1.37")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+    providers.gradleProperty("jmhIncludes").orNull?.let { includes.add(it) }
+    providers.gradleProperty("jmhThreads").orNull?.let { threads.set(it.toInt()) }
+    providers.gradleProperty("jmhThreadGroups").orNull?.let { threadGroups.set(it.split(",").map(String::toInt)) }
+}
+
 publishing {
     repositories {
         maven {
@@ -0,0 +1,31 @@
+package no.novari.cache.benchmark;
+
+import no.novari.cache.FintCache;
+
+import java.util.HashMap;
+import java.util.Map;
+
+final class BenchmarkData {
+
+    static final int keysPerValue = 10;
+
+    private BenchmarkData() {
+    }
+
+    static void fill(FintCache<Long, String> cache, int size) {
+        cache.put(entries(0, size));
+    }
+
+    static Map<Long, String> entries(long firstKey, int size) {
+        Map<Long, String> entries = new HashMap<>(size * 2);
+        for (long key = firstKey; key < firstKey + size; key++) {
+            entries.put(key, value(key));
+        }
+        return entries;
+    }
+
+    static String value(long key) {
+        return "value-" + key / keysPerValue;
+    }
+
+}
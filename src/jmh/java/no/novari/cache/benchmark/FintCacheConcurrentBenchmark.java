@@ -0,0 +1,92 @@
+package no.novari.cache.benchmark;
+
+import no.novari.cache.FintCache;
+import no.novari.cache.FintCacheEventLoggingOptions;
+import no.novari.cache.FintCacheManager;
+import no.novari.cache.FintCacheOptions;
+import no.novari.cache.ehcache.FintEhCacheManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FintCacheConcurrentBenchmark {
+
+    @Param({"100000"})
+    int cacheSize;
+
+    private FintCacheManager cacheManager;
+    private FintCache<Long, String> cache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.cacheManager = new FintEhCacheManager(
+                FintCacheOptions.builder()
+                        .timeToLive(Duration.ofDays(1))
+                        .heapSize((long) this.cacheSize)
+                        .eventLogging(FintCacheEventLoggingOptions.builder()
+                                .mode(FintCacheEventLoggingOptions.Mode.OFF)
+                                .build())
+                        .build()
+        );
+        this.cache = this.cacheManager.createCache("benchmark", Long.class, String.class);
+        BenchmarkData.fill(this.cache, this.cacheSize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.cacheManager.close();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Optional<String> getOptional() {
+        return this.cache.getOptional(ThreadLocalRandom.current().nextLong(this.cacheSize));
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void put() {
+        long key = ThreadLocalRandom.current().nextLong(this.cacheSize);
+        this.cache.put(key, BenchmarkData.value(key));
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(6)
+    public Optional<String> readWriteGet() {
+        return this.cache.getOptional(ThreadLocalRandom.current().nextLong(this.cacheSize));
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(2)
+    public void readWritePut() {
+        long key = ThreadLocalRandom.current().nextLong(this.cacheSize);
+        this.cache.put(key, BenchmarkData.value(key));
+    }
+
+}
@@ -0,0 +1,108 @@
+package no.novari.cache.benchmark;
+
+import no.novari.cache.FintCache;
+import no.novari.cache.FintCacheEventLoggingOptions;
+import no.novari.cache.FintCacheManager;
+import no.novari.cache.FintCacheOptions;
+import no.novari.cache.ehcache.FintEhCacheManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FintCacheReadBenchmark {
+
+    private static final int bulkSize = 100;
+
+    @Param({"1000", "100000", "1000000"})
+    int cacheSize;
+
+    @Param({"false", "true"})
+    boolean indexDistinctValues;
+
+    private FintCacheManager cacheManager;
+    private FintCache<Long, String> cache;
+    private List<Long> bulkKeys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.cacheManager = new FintEhCacheManager(
+                FintCacheOptions.builder()
+                        .timeToLive(Duration.ofDays(1))
+                        .heapSize((long) this.cacheSize)
+                        .eventLogging(FintCacheEventLoggingOptions.builder()
+                                .mode(FintCacheEventLoggingOptions.Mode.OFF)
+                                .build())
+                        .build()
+        );
+        this.cache = this.cacheManager.createCache(
+                "benchmark",
+                Long.class,
+                String.class,
+                FintCacheOptions.builder().indexDistinctValues(this.indexDistinctValues).build()
+        );
+        BenchmarkData.fill(this.cache, this.cacheSize);
+        this.bulkKeys = new ArrayList<>(bulkSize);
+        for (int i = 0; i < bulkSize; i++) {
+            this.bulkKeys.add(ThreadLocalRandom.current().nextLong(this.cacheSize));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.cacheManager.close();
+    }
+
+    @Benchmark
+    public Optional<String> getOptional() {
+        return this.cache.getOptional(ThreadLocalRandom.current().nextLong(this.cacheSize));
+    }
+
+    @Benchmark
+    public List<String> getBulk() {
+        return this.cache.get(this.bulkKeys);
+    }
+
+    @Benchmark
+    public List<String> getAll() {
+        return this.cache.getAll();
+    }
+
+    @Benchmark
+    public List<String> getAllDistinct() {
+        return this.cache.getAllDistinct();
+    }
+
+    @Benchmark
+    public long getNumberOfEntries() {
+        return this.cache.getNumberOfEntries();
+    }
+
+    @Benchmark
+    public long getNumberOfDistinctValues() {
+        return this.cache.getNumberOfDistinctValues();
+    }
+
+}
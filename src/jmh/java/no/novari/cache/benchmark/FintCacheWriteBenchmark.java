@@ -0,0 +1,101 @@
+package no.novari.cache.benchmark;
+
+import no.novari.cache.FintCache;
+import no.novari.cache.FintCacheEventListenerOptions;
+import no.novari.cache.FintCacheEventLoggingOptions;
+import no.novari.cache.FintCacheManager;
+import no.novari.cache.FintCacheOptions;
+import no.novari.cache.ehcache.FintEhCacheManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FintCacheWriteBenchmark {
+
+    private static final int bulkSize = 1000;
+
+    public enum ListenerMode {
+        NONE, SYNCHRONOUS, ASYNCHRONOUS
+    }
+
+    @Param({"1000", "100000"})
+    int cacheSize;
+
+    @Param({"NONE", "SYNCHRONOUS", "ASYNCHRONOUS"})
+    ListenerMode listenerMode;
+
+    @Param({"OFF", "ALL", "SAMPLED", "AGGREGATED"})
+    FintCacheEventLoggingOptions.Mode eventLoggingMode;
+
+    private FintCacheManager cacheManager;
+    private FintCache<Long, String> cache;
+    private Map<Long, String> bulkEntries;
+    private final LongAdder receivedEvents = new LongAdder();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        this.cacheManager = new FintEhCacheManager(
+                FintCacheOptions.builder()
+                        .timeToLive(Duration.ofDays(1))
+                        .heapSize((long) this.cacheSize)
+                        .eventLogging(FintCacheEventLoggingOptions.builder()
+                                .mode(this.eventLoggingMode)
+                                .build())
+                        .build()
+        );
+        this.cache = this.cacheManager.createCache("benchmark", Long.class, String.class);
+        switch (this.listenerMode) {
+            case NONE -> {
+            }
+            case SYNCHRONOUS -> this.cache.addEventListener(event -> this.receivedEvents.increment());
+            case ASYNCHRONOUS -> this.cache.addEventListener(
+                    event -> this.receivedEvents.increment(),
+                    FintCacheEventListenerOptions.builder().asynchronous(true).ordered(false).build()
+            );
+        }
+        BenchmarkData.fill(this.cache, this.cacheSize);
+        this.bulkEntries = BenchmarkData.entries(
+                ThreadLocalRandom.current().nextLong(Math.max(1, this.cacheSize - bulkSize)),
+                Math.min(bulkSize, this.cacheSize)
+        );
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.cacheManager.close();
+    }
+
+    @Benchmark
+    public void put() {
+        long key = ThreadLocalRandom.current().nextLong(this.cacheSize);
+        this.cache.put(key, BenchmarkData.value(key));
+    }
+
+    @Benchmark
+    public void putBulk() {
+        this.cache.put(this.bulkEntries);
+    }
+
+}
@@ -0,0 +1,304 @@
+package no.novari.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import no.novari.cache.exceptions.NoSuchCacheException;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+public abstract class AbstractFintCacheManager implements FintCacheManager {
+
+    private static final Duration defaultEventLoggingAggregationInterval = Duration.ofMinutes(1);
+
+    protected final FintCacheOptions defaultCacheOptions;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, List<ScheduledFuture<?>>> scheduledTasks;
+    private final Map<String, FintCacheWriteBehind<?, ?>> writeBehinds;
+    private final Map<FintCacheInvalidationTransport, FintCacheInvalidationBus> invalidationBuses;
+    private final Map<String, FintLongKeyCache<?>> longKeyCaches;
+    private final Map<String, FintCacheHotKeyTracker<?>> hotKeyTrackers;
+    private final Set<String> aliases;
+    private ScheduledExecutorService scheduler;
+
+    protected AbstractFintCacheManager(FintCacheOptions defaultCacheOptions, MeterRegistry meterRegistry) {
+        this.defaultCacheOptions = defaultCacheOptions;
+        this.meterRegistry = meterRegistry;
+        this.scheduledTasks = new ConcurrentHashMap<>();
+        this.writeBehinds = new ConcurrentHashMap<>();
+        this.invalidationBuses = new ConcurrentHashMap<>();
+        this.longKeyCaches = new ConcurrentHashMap<>();
+        this.hotKeyTrackers = new ConcurrentHashMap<>();
+        this.aliases = ConcurrentHashMap.newKeySet();
+    }
+
+    @Override
+    public <V> FintLongKeyCache<V> createLongKeyCache(String alias, Class<V> valueClass) {
+        return this.createLongKeyCache(alias, valueClass, FintCacheOptions.builder().build());
+    }
+
+    @Override
+    public <V> FintLongKeyCache<V> createLongKeyCache(String alias, Class<V> valueClass, FintCacheOptions cacheOptions) {
+        if (this.resolveOption(cacheOptions, options -> options.offHeapSize) != null
+                || this.resolveOption(cacheOptions, options -> options.diskSize) != null) {
+            throw new IllegalArgumentException("A long key cache is kept on heap only");
+        }
+        // Defaults for these only apply to regular caches, so only options given for this cache are rejected
+        if (cacheOptions.heapMemorySize != null) {
+            throw new IllegalArgumentException("A long key cache heap is sized by entries");
+        }
+        if (cacheOptions.timeToIdle != null) {
+            throw new IllegalArgumentException("A long key cache does not support time to idle");
+        }
+        if (cacheOptions.refreshAhead != null) {
+            throw new IllegalArgumentException("A long key cache does not support refresh-ahead");
+        }
+        if (Boolean.TRUE.equals(cacheOptions.internValues)) {
+            throw new IllegalArgumentException("A long key cache does not intern values");
+        }
+        Long heapSize = this.resolveOption(cacheOptions, options -> options.heapSize);
+        if (heapSize == null) {
+            throw new IllegalArgumentException("A long key cache requires a heap size in entries");
+        }
+        FintCacheStatistics<Long, V> statistics = new FintCacheStatistics<>();
+        FintLongKeyCache<V> cache = new FintLongKeyCache<>(
+                alias,
+                valueClass,
+                heapSize,
+                this.resolveOption(cacheOptions, options -> options.timeToLive),
+                statistics
+        );
+        this.reserveAlias(alias);
+        this.longKeyCaches.put(alias, cache);
+        this.registerCacheExtensions(cache, cacheOptions, statistics);
+        return cache;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <V> FintLongKeyCache<V> getLongKeyCache(String alias, Class<V> valueClass) {
+        FintLongKeyCache<?> cache = Optional.ofNullable(this.longKeyCaches.get(alias))
+                .orElseThrow(() -> new NoSuchCacheException(alias));
+        if (!cache.getValueClass().equals(valueClass)) {
+            throw new IllegalArgumentException(String.format(
+                    "Cache with alias='%s' has value type %s",
+                    alias, cache.getValueClass().getName()
+            ));
+        }
+        return (FintLongKeyCache<V>) cache;
+    }
+
+    // Regular and long key caches share one namespace, since their support is registered by alias
+    protected void reserveAlias(String alias) {
+        if (!this.aliases.add(alias)) {
+            throw new IllegalArgumentException(String.format("Cache with alias='%s' already exists", alias));
+        }
+    }
+
+    protected void releaseAlias(String alias) {
+        this.aliases.remove(alias);
+    }
+
+    protected <T> T resolveOption(FintCacheOptions cacheOptions, Function<FintCacheOptions, T> option) {
+        T value = option.apply(cacheOptions);
+        return value != null ? value : option.apply(this.defaultCacheOptions);
+    }
+
+    protected DataSize resolveHeapMemorySize(FintCacheOptions cacheOptions) {
+        if (cacheOptions.heapSize != null && cacheOptions.heapMemorySize != null) {
+            throw new IllegalArgumentException("A cache heap is sized either by entries or by memory size");
+        }
+        return cacheOptions.heapSize != null || cacheOptions.heapMemorySize != null
+                ? cacheOptions.heapMemorySize
+                : this.defaultCacheOptions.heapMemorySize;
+    }
+
+    protected boolean isIndexingDistinctValues(FintCacheOptions cacheOptions) {
+        return Boolean.TRUE.equals(this.resolveOption(cacheOptions, options -> options.indexDistinctValues))
+                || this.isInterningValues(cacheOptions);
+    }
+
+    protected boolean isInterningValues(FintCacheOptions cacheOptions) {
+        return Boolean.TRUE.equals(this.resolveOption(cacheOptions, options -> options.internValues));
+    }
+
+    protected <K, V> FintCacheExpiry<K, V> createExpiry(FintCacheOptions cacheOptions, boolean refreshingAhead) {
+        return new FintCacheExpiry<>(
+                this.resolveOption(cacheOptions, options -> options.timeToLive),
+                this.resolveOption(cacheOptions, options -> options.timeToIdle),
+                refreshingAhead
+        );
+    }
+
+    protected <K, V> FintCacheRefreshAhead<K, V> createRefreshAhead(
+            FintCacheOptions cacheOptions,
+            FintCacheExpiry<K, V> expiry,
+            Function<? super K, ? extends V> refreshLoader
+    ) {
+        if (refreshLoader == null) {
+            if (cacheOptions.refreshAhead != null) {
+                throw new IllegalArgumentException("Refresh-ahead requires a loader");
+            }
+            return null;
+        }
+        return new FintCacheRefreshAhead<>(
+                expiry,
+                refreshLoader,
+                cacheOptions.refreshAhead != null ? cacheOptions.refreshAhead : FintCacheRefreshAheadOptions.builder().build()
+        );
+    }
+
+    protected <K, V> void registerCacheSupport(
+            FintCache<K, V> cache,
+            FintCacheOptions cacheOptions,
+            FintCacheStatistics<K, V> statistics
+    ) {
+        cache.addEventListener(statistics, FintCacheEventListenerOptions.builder().ordered(false).build());
+        this.registerCacheExtensions(cache, cacheOptions, statistics);
+    }
+
+    private <K, V> void registerCacheExtensions(
+            FintCache<K, V> cache,
+            FintCacheOptions cacheOptions,
+            FintCacheStatistics<K, V> statistics
+    ) {
+        this.addEventLogger(cache, this.resolveOption(cacheOptions, options -> options.eventLogging));
+        FintCacheWriteBehind<K, V> writeBehind = this.addWriteBehind(cache, cacheOptions.writeBehind);
+        this.addInvalidation(cache, this.resolveOption(cacheOptions, options -> options.invalidation));
+        this.addHotKeyTracking(cache, statistics, this.resolveOption(cacheOptions, options -> options.hotKeys));
+        if (this.meterRegistry != null) {
+            new FintCacheMetrics(cache, statistics, writeBehind, Tags.empty()).bindTo(this.meterRegistry);
+        }
+    }
+
+    private <K, V> FintCacheWriteBehind<K, V> addWriteBehind(FintCache<K, V> cache, FintCacheWriteBehindOptions writeBehindOptions) {
+        if (writeBehindOptions == null) {
+            return null;
+        }
+        FintCacheWriteBehind<K, V> writeBehind = new FintCacheWriteBehind<>(cache.getAlias(), writeBehindOptions);
+        cache.addEventListener(writeBehind);
+        this.writeBehinds.put(cache.getAlias(), writeBehind);
+        long delayMillis = writeBehind.getMaxWriteDelay().toMillis();
+        this.schedule(
+                cache.getAlias(),
+                this.getScheduler().scheduleWithFixedDelay(writeBehind::flushIfDue, delayMillis, delayMillis, TimeUnit.MILLISECONDS)
+        );
+        return writeBehind;
+    }
+
+    private <K, V> void addInvalidation(FintCache<K, V> cache, FintCacheInvalidationOptions invalidationOptions) {
+        if (invalidationOptions == null || invalidationOptions.transport == null) {
+            return;
+        }
+        FintCacheInvalidationBus invalidationBus = this.invalidationBuses.computeIfAbsent(
+                invalidationOptions.transport,
+                FintCacheInvalidationBus::new
+        );
+        long delayMillis = invalidationBus.register(cache, invalidationOptions).toMillis();
+        this.schedule(
+                cache.getAlias(),
+                this.getScheduler().scheduleWithFixedDelay(
+                        () -> invalidationBus.flush(cache.getAlias()),
+                        delayMillis,
+                        delayMillis,
+                        TimeUnit.MILLISECONDS
+                )
+        );
+    }
+
+    private <K, V> void addHotKeyTracking(
+            FintCache<K, V> cache,
+            FintCacheStatistics<K, V> statistics,
+            FintCacheHotKeyOptions hotKeyOptions
+    ) {
+        if (hotKeyOptions == null) {
+            return;
+        }
+        FintCacheHotKeyTracker<K> hotKeyTracker = new FintCacheHotKeyTracker<>(hotKeyOptions);
+        statistics.trackHotKeys(hotKeyTracker);
+        this.hotKeyTrackers.put(cache.getAlias(), hotKeyTracker);
+    }
+
+    @Override
+    public Map<String, List<FintCacheHotKey>> getHotKeys() {
+        Map<String, List<FintCacheHotKey>> hotKeys = new TreeMap<>();
+        this.hotKeyTrackers.forEach((alias, hotKeyTracker) -> hotKeys.put(alias, hotKeyTracker.getHotKeys()));
+        return hotKeys;
+    }
+
+    private void schedule(String alias, ScheduledFuture<?> task) {
+        this.scheduledTasks.computeIfAbsent(alias, key -> new CopyOnWriteArrayList<>()).add(task);
+    }
+
+    private <K, V> void addEventLogger(FintCache<K, V> cache, FintCacheEventLoggingOptions loggingOptions) {
+        if (loggingOptions == null) {
+            loggingOptions = FintCacheEventLoggingOptions.builder().build();
+        }
+        if (loggingOptions.mode == FintCacheEventLoggingOptions.Mode.OFF) {
+            return;
+        }
+        FintCacheEventLogger<K, V> eventLogger = new FintCacheEventLogger<>(cache.getAlias(), loggingOptions);
+        if (loggingOptions.mode == FintCacheEventLoggingOptions.Mode.AGGREGATED) {
+            cache.addEventListener(eventLogger, FintCacheEventListenerOptions.builder().ordered(false).build());
+            long intervalMillis = (loggingOptions.aggregationInterval != null
+                    ? loggingOptions.aggregationInterval
+                    : defaultEventLoggingAggregationInterval
+            ).toMillis();
+            this.schedule(
+                    cache.getAlias(),
+                    this.getScheduler().scheduleAtFixedRate(eventLogger::flush, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS)
+            );
+        } else {
+            cache.addEventListener(eventLogger);
+        }
+    }
+
+    protected synchronized ScheduledExecutorService getScheduler() {
+        if (this.scheduler == null) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("fint-cache-scheduler").daemon().factory()
+            );
+        }
+        return this.scheduler;
+    }
+
+    protected void unregisterCacheSupport(String alias) {
+        Optional.ofNullable(this.longKeyCaches.remove(alias)).ifPresent(cache -> {
+            cache.removeBatchEventListeners();
+            cache.clear();
+        });
+        Optional.ofNullable(this.scheduledTasks.remove(alias)).ifPresent(tasks -> tasks.forEach(task -> task.cancel(false)));
+        Optional.ofNullable(this.writeBehinds.remove(alias)).ifPresent(FintCacheWriteBehind::flush);
+        this.hotKeyTrackers.remove(alias);
+        this.invalidationBuses.values().forEach(invalidationBus -> invalidationBus.unregister(alias));
+        if (this.meterRegistry != null) {
+            this.meterRegistry.getMeters().stream()
+                    .filter(meter -> alias.equals(meter.getId().getTag("cache")))
+                    .forEach(this.meterRegistry::remove);
+        }
+        this.releaseAlias(alias);
+    }
+
+    @Override
+    public synchronized void close() {
+        this.longKeyCaches.values().forEach(FintLongKeyCache::removeBatchEventListeners);
+        this.writeBehinds.values().forEach(FintCacheWriteBehind::flush);
+        this.invalidationBuses.values().forEach(FintCacheInvalidationBus::close);
+        if (this.scheduler != null) {
+            this.scheduler.shutdownNow();
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package no.novari.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+public class FintAsyncCache<K, V> {
+
+    private final FintCache<K, V> cache;
+    private final Executor executor;
+
+    public FintAsyncCache(FintCache<K, V> cache, Executor executor) {
+        this.cache = cache;
+        this.executor = executor;
+    }
+
+    public FintCache<K, V> synchronous() {
+        return this.cache;
+    }
+
+    public CompletableFuture<Optional<V>> getAsync(K key) {
+        return CompletableFuture.supplyAsync(() -> this.cache.getOptional(key), this.executor);
+    }
+
+    public CompletableFuture<Map<K, V>> getAllAsync(Collection<K> keys) {
+        return CompletableFuture.supplyAsync(() -> this.cache.getAllPresent(keys), this.executor);
+    }
+
+    public CompletableFuture<V> getOrLoadAsync(K key, Function<? super K, ? extends V> loader) {
+        return CompletableFuture.supplyAsync(() -> this.cache.getOrLoad(key, loader), this.executor);
+    }
+
+    public CompletableFuture<Map<K, V>> getAllOrLoadAsync(
+            Collection<K> keys,
+            Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> loader
+    ) {
+        return CompletableFuture.supplyAsync(() -> this.cache.getAllOrLoad(keys, loader), this.executor);
+    }
+
+    public CompletableFuture<Void> putAsync(K key, V value) {
+        return CompletableFuture.runAsync(() -> this.cache.put(key, value), this.executor);
+    }
+
+    public CompletableFuture<Void> putAllAsync(Map<? extends K, ? extends V> entries) {
+        return CompletableFuture.runAsync(() -> this.cache.put(entries), this.executor);
+    }
+
+    public CompletableFuture<Void> removeAsync(K key) {
+        return CompletableFuture.runAsync(() -> this.cache.remove(key), this.executor);
+    }
+
+    public CompletableFuture<Void> removeAllAsync(Collection<K> keys) {
+        return CompletableFuture.runAsync(() -> this.cache.remove(keys), this.executor);
+    }
+
+}
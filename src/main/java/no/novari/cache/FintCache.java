@@ -2,12 +2,20 @@ package no.novari.cache;
 
 import no.novari.cache.exceptions.NoSuchCacheEntryException;
 
+import java.time.Duration;
 import java.util.AbstractMap;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public interface FintCache<K, V> {
 
@@ -23,14 +31,49 @@ public interface FintCache<K, V> {
 
     List<V> get(Collection<K> keys);
 
+    Map<K, V> getAllPresent(Collection<K> keys);
+
+    default FintCacheLookupResult<K, V> lookup(Collection<K> keys) {
+        Map<K, V> hits = this.getAllPresent(keys);
+        Set<K> missingKeys = new LinkedHashSet<>();
+        for (K key : keys) {
+            if (!hits.containsKey(key)) {
+                missingKeys.add(key);
+            }
+        }
+        return new FintCacheLookupResult<>(hits, missingKeys);
+    }
+
+    V getOrLoad(K key, Function<? super K, ? extends V> loader);
+
+    Map<K, V> getAllOrLoad(Collection<K> keys, Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> loader);
+
     List<V> getAll();
 
+    Stream<Map.Entry<K, V>> stream();
+
+    void forEach(BiConsumer<? super K, ? super V> action);
+
+    default FintCacheCursor<K, V> cursor(int pageSize) {
+        return new FintCacheCursor<>(this.stream().iterator(), pageSize);
+    }
+
+    default FintAsyncCache<K, V> async() {
+        return this.async(FintCacheExecutors.defaultExecutor);
+    }
+
+    default FintAsyncCache<K, V> async(Executor executor) {
+        return new FintAsyncCache<>(this, executor);
+    }
+
     default List<V> getAllDistinct() {
         return this.getAll().stream().distinct().collect(Collectors.toList());
     }
 
     void put(K key, V value);
 
+    void put(K key, V value, Duration timeToLive);
+
     default void put(Collection<K> keys, V value) {
         Map<K, V> map = keys.stream()
                 .map(key -> new AbstractMap.SimpleEntry<>(key, value))
@@ -40,10 +83,23 @@ public interface FintCache<K, V> {
 
     void put(Map<? extends K, ? extends V> entries);
 
+    // For values loaded from the source of truth, so peers are not told to invalidate entries they can load themselves
+    void putLoaded(Map<? extends K, ? extends V> entries);
+
+    V putIfAbsent(K key, V value);
+
+    boolean replace(K key, V oldValue, V newValue);
+
+    V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction);
+
+    V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction);
+
     void remove(K key);
 
     void remove(Collection<K> keys);
 
+    void invalidate(Collection<K> keys);
+
     void clear();
 
     default long getNumberOfEntries() {
@@ -54,8 +110,30 @@ public interface FintCache<K, V> {
         return this.getAllDistinct().size();
     }
 
+    default FintCacheInfo getInfo() {
+        return this.getInfo(false);
+    }
+
+    // Estimating retained bytes walks a sample of the cached objects, so it is only done when asked for
+    default FintCacheInfo getInfo(boolean estimatingRetainedBytes) {
+        return FintCacheInfo.builder()
+                .alias(this.getAlias())
+                .numberOfEntries(this.getNumberOfEntries())
+                .numberOfDistinctEntries(this.getNumberOfDistinctValues())
+                .estimatedRetainedBytes(estimatingRetainedBytes
+                        ? FintCacheSizeEstimator.tryEstimateRetainedBytes(this, 1000)
+                        : null)
+                .build();
+    }
+
     void addEventListener(FintCacheEventListener<K, V> listener);
 
+    void addEventListener(FintCacheEventListener<K, V> listener, FintCacheEventListenerOptions listenerOptions);
+
     void removeEventListener(FintCacheEventListener<K, V> listener);
 
+    void addBatchEventListener(FintCacheBatchEventListener<K, V> listener, FintCacheBatchEventListenerOptions listenerOptions);
+
+    void removeBatchEventListener(FintCacheBatchEventListener<K, V> listener);
+
 }
@@ -0,0 +1,62 @@
+package no.novari.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+public class FintCacheAsyncEventListener<K, V> implements FintCacheEventListener<K, V> {
+
+    private final FintCacheEventListener<K, V> listener;
+    private final Executor executor;
+    private final boolean ordered;
+    private final Queue<FintCacheEvent<K, V>> pendingEvents;
+    private final AtomicBoolean draining;
+
+    public FintCacheAsyncEventListener(FintCacheEventListener<K, V> listener, Executor executor, boolean ordered) {
+        this.listener = listener;
+        this.executor = executor;
+        this.ordered = ordered;
+        this.pendingEvents = new ConcurrentLinkedQueue<>();
+        this.draining = new AtomicBoolean(false);
+    }
+
+    @Override
+    public void onEvent(FintCacheEvent<K, V> event) {
+        if (this.ordered) {
+            this.pendingEvents.add(event);
+            this.scheduleDrain();
+        } else {
+            this.executor.execute(() -> this.deliver(event));
+        }
+    }
+
+    private void scheduleDrain() {
+        if (this.draining.compareAndSet(false, true)) {
+            this.executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        FintCacheEvent<K, V> event;
+        while ((event = this.pendingEvents.poll()) != null) {
+            this.deliver(event);
+        }
+        this.draining.set(false);
+        if (!this.pendingEvents.isEmpty()) {
+            this.scheduleDrain();
+        }
+    }
+
+    private void deliver(FintCacheEvent<K, V> event) {
+        try {
+            this.listener.onEvent(event);
+        } catch (RuntimeException e) {
+            log.error("Cache event listener failed to handle {} event", event.getType(), e);
+        }
+    }
+
+}
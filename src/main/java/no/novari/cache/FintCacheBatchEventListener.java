@@ -0,0 +1,9 @@
+package no.novari.cache;
+
+import java.util.List;
+
+public interface FintCacheBatchEventListener<K, V> {
+
+    void onEvents(List<FintCacheEvent<K, V>> events);
+
+}
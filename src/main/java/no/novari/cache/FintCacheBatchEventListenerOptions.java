@@ -0,0 +1,18 @@
+package no.novari.cache;
+
+import lombok.Builder;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+@Builder
+public class FintCacheBatchEventListenerOptions {
+
+    public final Integer batchSize;
+    public final Duration maxDelay;
+    public final Boolean coalescing;
+    public final Set<FintCacheEvent.EventType> eventTypes;
+    public final Executor executor;
+
+}
@@ -0,0 +1,37 @@
+package no.novari.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class FintCacheBatchEventListeners<K, V> {
+
+    private final Map<FintCacheBatchEventListener<K, V>, FintCacheEventBatcher<K, V>> eventBatchers = new ConcurrentHashMap<>();
+
+    public void add(
+            FintCache<K, V> cache,
+            FintCacheBatchEventListener<K, V> listener,
+            FintCacheBatchEventListenerOptions listenerOptions
+    ) {
+        FintCacheEventBatcher<K, V> eventBatcher = new FintCacheEventBatcher<>(listener, listenerOptions);
+        if (this.eventBatchers.putIfAbsent(listener, eventBatcher) != null) {
+            throw new IllegalStateException("Batch event listener is already registered");
+        }
+        cache.addEventListener(
+                eventBatcher,
+                FintCacheEventListenerOptions.builder().eventTypes(listenerOptions.eventTypes).build()
+        );
+    }
+
+    public void remove(FintCache<K, V> cache, FintCacheBatchEventListener<K, V> listener) {
+        FintCacheEventBatcher<K, V> eventBatcher = this.eventBatchers.remove(listener);
+        if (eventBatcher != null) {
+            cache.removeEventListener(eventBatcher);
+            eventBatcher.close();
+        }
+    }
+
+    public void removeAll(FintCache<K, V> cache) {
+        this.eventBatchers.keySet().forEach(listener -> this.remove(cache, listener));
+    }
+
+}
@@ -1,28 +1,166 @@
 package no.novari.cache;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import no.novari.cache.caffeine.FintCaffeineCacheManager;
 import no.novari.cache.ehcache.FintEhCacheManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
+import org.springframework.util.unit.DataSize;
 
+import java.nio.file.Path;
 import java.time.Duration;
 
 @AutoConfiguration
+@EnableConfigurationProperties(FintCacheProperties.class)
 public class FintCacheConfiguration {
 
     @Value("${novari.cache.defaultCacheEntryTimeToLive:6d}")
     Duration defaultCacheEntryTimeToLive;
 
+    @Value("${novari.cache.defaultCacheEntryTimeToIdle:#{null}}")
+    Duration defaultCacheEntryTimeToIdle;
+
     @Value("${novari.cache.defaultCacheHeapSize:1000000}")
     Long defaultCacheHeapSize;
 
+    @Value("${novari.cache.defaultCacheHeapMemorySize:#{null}}")
+    DataSize defaultCacheHeapMemorySize;
+
+    @Value("${novari.cache.defaultCacheOffHeapSize:#{null}}")
+    DataSize defaultCacheOffHeapSize;
+
+    @Value("${novari.cache.defaultCacheDiskSize:#{null}}")
+    DataSize defaultCacheDiskSize;
+
+    @Value("${novari.cache.defaultCachePersistent:false}")
+    Boolean defaultCachePersistent;
+
+    @Value("${novari.cache.storageDirectory:#{null}}")
+    Path storageDirectory;
+
+    @Value("${novari.cache.defaultIndexDistinctValues:false}")
+    Boolean defaultIndexDistinctValues;
+
+    @Value("${novari.cache.defaultInternValues:false}")
+    Boolean defaultInternValues;
+
+    @Value("${novari.cache.defaultEventLoggingMode:ALL}")
+    FintCacheEventLoggingOptions.Mode defaultEventLoggingMode;
+
+    @Value("${novari.cache.defaultEventLoggingSampleRate:100}")
+    Long defaultEventLoggingSampleRate;
+
+    @Value("${novari.cache.defaultEventLoggingMaxEventsPerSecond:10}")
+    Long defaultEventLoggingMaxEventsPerSecond;
+
+    @Value("${novari.cache.defaultEventLoggingAggregationInterval:1m}")
+    Duration defaultEventLoggingAggregationInterval;
+
+    @Value("${novari.cache.defaultHotKeyTracking:false}")
+    Boolean defaultHotKeyTracking;
+
+    @Value("${novari.cache.defaultHotKeySampleRate:16}")
+    Integer defaultHotKeySampleRate;
+
+    @Value("${novari.cache.defaultHotKeyNumberOfTopKeys:10}")
+    Integer defaultHotKeyNumberOfTopKeys;
+
+    @Value("${novari.cache.invalidationBatchSize:100}")
+    Integer invalidationBatchSize;
+
+    @Value("${novari.cache.invalidationMaxDelay:100ms}")
+    Duration invalidationMaxDelay;
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "novari.cache.provider", havingValue = "ehcache", matchIfMissing = true)
+    public FintCacheManager fintCacheManager(
+            FintCacheProperties cacheProperties,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            ObjectProvider<FintCacheInvalidationTransport> invalidationTransport
+    ) {
+        return this.createDefinedCaches(new FintEhCacheManager(
+                this.defaultCacheOptions(invalidationTransport.getIfAvailable()),
+                this.storageDirectory,
+                meterRegistry.getIfAvailable()
+        ), cacheProperties);
+    }
+
+    @Bean(name = "fintCacheManager", destroyMethod = "close")
+    @ConditionalOnProperty(name = "novari.cache.provider", havingValue = "caffeine")
+    public FintCacheManager fintCaffeineCacheManager(
+            FintCacheProperties cacheProperties,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            ObjectProvider<FintCacheInvalidationTransport> invalidationTransport
+    ) {
+        return this.createDefinedCaches(new FintCaffeineCacheManager(
+                this.defaultCacheOptions(invalidationTransport.getIfAvailable()),
+                meterRegistry.getIfAvailable()
+        ), cacheProperties);
+    }
+
     @Bean
-    public FintCacheManager fintCacheManager() {
-        return new FintEhCacheManager(
-                FintCacheOptions.builder()
-                        .timeToLive(this.defaultCacheEntryTimeToLive)
-                        .heapSize(this.defaultCacheHeapSize)
-                        .build()
+    public SmartInitializingSingleton fintCachePreloading(
+            FintCacheManager fintCacheManager,
+            FintCacheProperties cacheProperties,
+            ObjectProvider<FintCachePreloader<?, ?>> preloaders
+    ) {
+        return () -> FintCacheDefinitions.preloadCaches(
+                fintCacheManager,
+                cacheProperties.caches(),
+                preloaders.orderedStream().toList()
         );
     }
+
+    @Bean
+    @ConditionalOnAvailableEndpoint
+    public FintCacheHotKeyEndpoint fintCacheHotKeyEndpoint(FintCacheManager fintCacheManager) {
+        return new FintCacheHotKeyEndpoint(fintCacheManager);
+    }
+
+    private FintCacheManager createDefinedCaches(FintCacheManager cacheManager, FintCacheProperties cacheProperties) {
+        try {
+            FintCacheDefinitions.createCaches(cacheManager, cacheProperties.caches());
+        } catch (RuntimeException e) {
+            cacheManager.close();
+            throw e;
+        }
+        return cacheManager;
+    }
+
+    private FintCacheOptions defaultCacheOptions(FintCacheInvalidationTransport invalidationTransport) {
+        return FintCacheOptions.builder()
+                .timeToLive(this.defaultCacheEntryTimeToLive)
+                .timeToIdle(this.defaultCacheEntryTimeToIdle)
+                .heapSize(this.defaultCacheHeapSize)
+                .heapMemorySize(this.defaultCacheHeapMemorySize)
+                .offHeapSize(this.defaultCacheOffHeapSize)
+                .diskSize(this.defaultCacheDiskSize)
+                .persistent(this.defaultCachePersistent)
+                .indexDistinctValues(this.defaultIndexDistinctValues)
+                .internValues(this.defaultInternValues)
+                .eventLogging(FintCacheEventLoggingOptions.builder()
+                        .mode(this.defaultEventLoggingMode)
+                        .sampleRate(this.defaultEventLoggingSampleRate)
+                        .maxEventsPerSecond(this.defaultEventLoggingMaxEventsPerSecond)
+                        .aggregationInterval(this.defaultEventLoggingAggregationInterval)
+                        .build())
+                .invalidation(FintCacheInvalidationOptions.builder()
+                        .transport(invalidationTransport)
+                        .batchSize(this.invalidationBatchSize)
+                        .maxDelay(this.invalidationMaxDelay)
+                        .build())
+                .hotKeys(Boolean.TRUE.equals(this.defaultHotKeyTracking)
+                        ? FintCacheHotKeyOptions.builder()
+                        .sampleRate(this.defaultHotKeySampleRate)
+                        .numberOfTopKeys(this.defaultHotKeyNumberOfTopKeys)
+                        .build()
+                        : null)
+                .build();
+    }
 }
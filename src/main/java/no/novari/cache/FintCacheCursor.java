@@ -0,0 +1,37 @@
+package no.novari.cache;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+public class FintCacheCursor<K, V> {
+
+    private final Iterator<Map.Entry<K, V>> entries;
+    private final int pageSize;
+
+    public FintCacheCursor(Iterator<Map.Entry<K, V>> entries, int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive");
+        }
+        this.entries = entries;
+        this.pageSize = pageSize;
+    }
+
+    public boolean hasNextPage() {
+        return this.entries.hasNext();
+    }
+
+    public List<Map.Entry<K, V>> nextPage() {
+        if (!this.entries.hasNext()) {
+            throw new NoSuchElementException("No more cache entries");
+        }
+        List<Map.Entry<K, V>> page = new ArrayList<>(this.pageSize);
+        while (page.size() < this.pageSize && this.entries.hasNext()) {
+            page.add(this.entries.next());
+        }
+        return page;
+    }
+
+}
@@ -0,0 +1,104 @@
+package no.novari.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@Slf4j
+final class FintCacheDefinitions {
+
+    private FintCacheDefinitions() {
+    }
+
+    static void createCaches(FintCacheManager cacheManager, Map<String, FintCacheProperties.CacheDefinition> cacheDefinitions) {
+        Map<String, CompletableFuture<?>> creations = new LinkedHashMap<>();
+        cacheDefinitions.forEach((alias, cacheDefinition) -> creations.put(
+                alias,
+                runAsync(() -> createCache(cacheManager, alias, cacheDefinition))
+        ));
+        awaitAll("Invalid cache definitions", creations);
+    }
+
+    private static void createCache(
+            FintCacheManager cacheManager,
+            String alias,
+            FintCacheProperties.CacheDefinition cacheDefinition
+    ) {
+        if (cacheDefinition.keyClass() == null || cacheDefinition.valueClass() == null) {
+            throw new IllegalArgumentException("Key class and value class are required");
+        }
+        cacheManager.createCache(
+                alias,
+                cacheDefinition.keyClass(),
+                cacheDefinition.valueClass(),
+                cacheDefinition.toCacheOptions()
+        );
+    }
+
+    static void preloadCaches(
+            FintCacheManager cacheManager,
+            Map<String, FintCacheProperties.CacheDefinition> cacheDefinitions,
+            Collection<FintCachePreloader<?, ?>> preloaders
+    ) {
+        Map<String, CompletableFuture<?>> preloads = new LinkedHashMap<>();
+        for (FintCachePreloader<?, ?> preloader : preloaders) {
+            FintCacheProperties.CacheDefinition cacheDefinition = cacheDefinitions.get(preloader.getAlias());
+            preloads.put(preloader.getAlias(), runAsync(() -> {
+                if (cacheDefinition == null) {
+                    throw new IllegalArgumentException("No cache is defined with this alias");
+                }
+                long numberOfEntries = preloadCache(cacheManager, cacheDefinition, preloader);
+                log.info("Preloaded {} entries into cache '{}'", numberOfEntries, preloader.getAlias());
+            }));
+        }
+        awaitAll("Failed to preload caches", preloads);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> long preloadCache(
+            FintCacheManager cacheManager,
+            FintCacheProperties.CacheDefinition cacheDefinition,
+            FintCachePreloader<?, ?> preloader
+    ) {
+        FintCache<K, V> cache = cacheManager.getCache(
+                preloader.getAlias(),
+                FintCacheDefinitions.<K>cast(cacheDefinition.keyClass()),
+                FintCacheDefinitions.<V>cast(cacheDefinition.valueClass())
+        );
+        Map<? extends K, ? extends V> entries = ((FintCachePreloader<K, V>) preloader).load();
+        cache.putLoaded(entries);
+        return entries.size();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Class<T> cast(Class<?> type) {
+        return (Class<T>) type;
+    }
+
+    private static CompletableFuture<?> runAsync(Runnable task) {
+        return CompletableFuture.runAsync(task, FintCacheExecutors.defaultExecutor);
+    }
+
+    // Every definition is attempted, so that all mistakes are reported at once
+    private static void awaitAll(String message, Map<String, CompletableFuture<?>> tasks) {
+        List<String> failures = new ArrayList<>();
+        tasks.forEach((alias, task) -> {
+            try {
+                task.join();
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                failures.add(String.format("'%s': %s", alias, cause.getMessage()));
+            }
+        });
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException(message + " " + String.join(", ", failures));
+        }
+    }
+
+}
@@ -0,0 +1,83 @@
+package no.novari.cache;
+
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class FintCacheDistinctValueIndex<K, V> implements FintCacheEventListener<K, V> {
+
+    private record ReferenceCountedValue<V>(V value, long referenceCount) {
+    }
+
+    private final Map<V, ReferenceCountedValue<V>> referenceCountPerValue = new ConcurrentHashMap<>();
+
+    @Override
+    public void onEvent(FintCacheEvent<K, V> event) {
+        switch (event.getType()) {
+            case CREATED -> this.increment(event.getNewValue());
+            case UPDATED -> {
+                if (!Objects.equals(event.getOldValue(), event.getNewValue())) {
+                    this.increment(event.getNewValue());
+                    this.decrement(event.getOldValue());
+                }
+            }
+            case REMOVED, EXPIRED, EVICTED -> this.decrement(event.getOldValue());
+        }
+    }
+
+    private void increment(V value) {
+        if (value != null) {
+            this.referenceCountPerValue.merge(
+                    value,
+                    new ReferenceCountedValue<>(value, 1L),
+                    (current, added) -> new ReferenceCountedValue<>(current.value(), current.referenceCount() + 1)
+            );
+        }
+    }
+
+    private void decrement(V value) {
+        if (value != null) {
+            this.referenceCountPerValue.computeIfPresent(value, (v, current) -> current.referenceCount() > 1
+                    ? new ReferenceCountedValue<>(current.value(), current.referenceCount() - 1)
+                    : null
+            );
+        }
+    }
+
+    public V getCanonicalValue(V value) {
+        if (value == null) {
+            return null;
+        }
+        ReferenceCountedValue<V> canonicalValue = this.referenceCountPerValue.get(value);
+        return canonicalValue != null ? canonicalValue.value() : value;
+    }
+
+    public Map<K, V> getCanonicalValues(Map<? extends K, ? extends V> entries) {
+        Map<V, V> canonicalValues = new HashMap<>();
+        Map<K, V> canonicalEntries = new LinkedHashMap<>(Math.max(16, (int) (entries.size() / 0.75f) + 1));
+        entries.forEach((key, value) -> canonicalEntries.put(
+                key,
+                value != null ? canonicalValues.computeIfAbsent(this.getCanonicalValue(value), canonicalValue -> canonicalValue) : null
+        ));
+        return canonicalEntries;
+    }
+
+    public List<V> getDistinctValues() {
+        return new ArrayList<>(this.referenceCountPerValue.keySet());
+    }
+
+    public long getNumberOfDistinctValues() {
+        return this.referenceCountPerValue.size();
+    }
+
+    // Ehcache does not fire events on clear
+    public void reset() {
+        this.referenceCountPerValue.clear();
+    }
+
+}
@@ -24,6 +24,22 @@ public class FintCacheEvent<K, V> {
     @Getter
     private final V newValue;
 
+    // Set on removals applied on behalf of a peer node, which listeners with side effects should not act on
+    @Getter
+    private final boolean invalidation;
+
+    // Set on writes of values loaded from the source of truth, which peer nodes can load themselves
+    @Getter
+    private final boolean loaded;
+
+    public FintCacheEvent(EventType type, K key, V oldValue, V newValue) {
+        this(type, key, oldValue, newValue, false, false);
+    }
+
+    public FintCacheEvent(EventType type, K key, V oldValue, V newValue, boolean invalidation) {
+        this(type, key, oldValue, newValue, invalidation, false);
+    }
+
     @Override
     public String toString() {
         return "Sensitive data omitted";
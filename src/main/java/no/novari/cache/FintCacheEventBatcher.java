@@ -0,0 +1,158 @@
+package no.novari.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+class FintCacheEventBatcher<K, V> implements FintCacheEventListener<K, V> {
+
+    private static final int defaultBatchSize = 1000;
+    private static final Duration defaultMaxDelay = Duration.ofSeconds(1);
+
+    private final FintCacheBatchEventListener<K, V> listener;
+    private final int batchSize;
+    private final boolean coalescing;
+    private final Executor executor;
+    private final Executor delayedExecutor;
+    private final AtomicBoolean flushRequested;
+    private final ReentrantLock deliveryLock;
+    private volatile boolean closed;
+    private List<FintCacheEvent<K, V>> pendingEvents;
+    private Map<K, FintCacheEvent<K, V>> pendingEventPerKey;
+
+    FintCacheEventBatcher(FintCacheBatchEventListener<K, V> listener, FintCacheBatchEventListenerOptions listenerOptions) {
+        this.batchSize = listenerOptions.batchSize != null ? listenerOptions.batchSize : defaultBatchSize;
+        if (this.batchSize < 1) {
+            throw new IllegalArgumentException("Event batch size must be at least 1");
+        }
+        Duration maxDelay = listenerOptions.maxDelay != null ? listenerOptions.maxDelay : defaultMaxDelay;
+        this.listener = listener;
+        this.coalescing = Boolean.TRUE.equals(listenerOptions.coalescing);
+        this.executor = listenerOptions.executor != null ? listenerOptions.executor : FintCacheExecutors.defaultExecutor;
+        this.delayedExecutor = CompletableFuture.delayedExecutor(maxDelay.toMillis(), TimeUnit.MILLISECONDS, this.executor);
+        this.flushRequested = new AtomicBoolean();
+        this.deliveryLock = new ReentrantLock();
+        this.pendingEvents = new ArrayList<>();
+        this.pendingEventPerKey = new LinkedHashMap<>();
+    }
+
+    @Override
+    public void onEvent(FintCacheEvent<K, V> event) {
+        boolean firstPendingEvent;
+        int numberOfPendingEvents;
+        synchronized (this) {
+            firstPendingEvent = this.getNumberOfPendingEvents() == 0;
+            if (this.coalescing) {
+                this.coalesce(event);
+            } else {
+                this.pendingEvents.add(event);
+            }
+            numberOfPendingEvents = this.getNumberOfPendingEvents();
+        }
+        // An event raced with detaching the batcher, so it is delivered right away rather than left pending
+        if (this.closed) {
+            this.flush();
+            return;
+        }
+        if (numberOfPendingEvents >= this.batchSize) {
+            if (this.flushRequested.compareAndSet(false, true)) {
+                this.execute(this.executor, () -> {
+                    try {
+                        this.flush();
+                    } finally {
+                        this.flushRequested.set(false);
+                    }
+                });
+            }
+        } else if (firstPendingEvent) {
+            this.execute(this.delayedExecutor, this::flush);
+        }
+    }
+
+    // Only the state before the first and after the last event of a key is kept
+    private void coalesce(FintCacheEvent<K, V> event) {
+        FintCacheEvent<K, V> previousEvent = this.pendingEventPerKey.remove(event.getKey());
+        if (previousEvent == null) {
+            this.pendingEventPerKey.put(event.getKey(), event);
+            return;
+        }
+        boolean presentBefore = previousEvent.getType() != FintCacheEvent.EventType.CREATED;
+        boolean presentAfter = event.getType() == FintCacheEvent.EventType.CREATED
+                || event.getType() == FintCacheEvent.EventType.UPDATED;
+        if (!presentBefore && !presentAfter) {
+            return;
+        }
+        this.pendingEventPerKey.put(event.getKey(), new FintCacheEvent<>(
+                !presentBefore ? FintCacheEvent.EventType.CREATED
+                        : presentAfter ? FintCacheEvent.EventType.UPDATED
+                        : event.getType(),
+                event.getKey(),
+                previousEvent.getOldValue(),
+                event.getNewValue()
+        ));
+    }
+
+    private int getNumberOfPendingEvents() {
+        return this.coalescing ? this.pendingEventPerKey.size() : this.pendingEvents.size();
+    }
+
+    private void execute(Executor executor, Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.warn("Could not schedule delivery of cache event batch", e);
+            if (executor == this.executor) {
+                this.flushRequested.set(false);
+            }
+        }
+    }
+
+    public void close() {
+        this.closed = true;
+        this.flush();
+    }
+
+    public void flush() {
+        this.deliveryLock.lock();
+        try {
+            List<FintCacheEvent<K, V>> events = this.drain();
+            for (int from = 0; from < events.size(); from += this.batchSize) {
+                List<FintCacheEvent<K, V>> batch = Collections.unmodifiableList(
+                        events.subList(from, Math.min(from + this.batchSize, events.size()))
+                );
+                try {
+                    this.listener.onEvents(batch);
+                } catch (RuntimeException e) {
+                    log.error("Cache batch event listener failed to handle {} events", batch.size(), e);
+                }
+            }
+        } finally {
+            this.deliveryLock.unlock();
+        }
+    }
+
+    private synchronized List<FintCacheEvent<K, V>> drain() {
+        List<FintCacheEvent<K, V>> events;
+        if (this.coalescing) {
+            events = new ArrayList<>(this.pendingEventPerKey.values());
+            this.pendingEventPerKey = new LinkedHashMap<>();
+        } else {
+            events = this.pendingEvents;
+            this.pendingEvents = new ArrayList<>();
+        }
+        return events;
+    }
+
+}
@@ -0,0 +1,22 @@
+package no.novari.cache;
+
+import lombok.Builder;
+
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+@Builder
+public class FintCacheEventListenerOptions {
+
+    public final Boolean asynchronous;
+
+    /**
+     * Ordered by default. A synchronous ordered listener is called while the cache holds the lock of the written
+     * entry, so it must be quick and must not read or write the same cache, which can block or deadlock the write.
+     * Listeners that need to do either should be registered as asynchronous or unordered.
+     */
+    public final Boolean ordered;
+    public final Set<FintCacheEvent.EventType> eventTypes;
+    public final Executor executor;
+
+}
@@ -0,0 +1,117 @@
+package no.novari.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+@Slf4j
+public class FintCacheEventLogger<K, V> implements FintCacheEventListener<K, V> {
+
+    private static final long defaultSampleRate = 100;
+    private static final long defaultMaxEventsPerSecond = 10;
+    private static final long rateLimitWindowNanos = TimeUnit.SECONDS.toNanos(1);
+
+    private final String cacheAlias;
+    private final FintCacheEventLoggingOptions.Mode mode;
+    private final long sampleRate;
+    private final long maxEventsPerSecond;
+
+    private final AtomicLong sampledEventCount;
+    private final AtomicLong rateLimitWindowStart;
+    private final AtomicLong rateLimitWindowEventCount;
+    private final Map<FintCacheEvent.EventType, LongAdder> aggregatedEventCounts;
+
+    public FintCacheEventLogger(String cacheAlias) {
+        this(cacheAlias, FintCacheEventLoggingOptions.builder().mode(FintCacheEventLoggingOptions.Mode.ALL).build());
+    }
+
+    public FintCacheEventLogger(String cacheAlias, FintCacheEventLoggingOptions loggingOptions) {
+        this.cacheAlias = cacheAlias;
+        this.mode = loggingOptions.mode != null ? loggingOptions.mode : FintCacheEventLoggingOptions.Mode.ALL;
+        this.sampleRate = loggingOptions.sampleRate != null ? loggingOptions.sampleRate : defaultSampleRate;
+        this.maxEventsPerSecond = loggingOptions.maxEventsPerSecond != null
+                ? loggingOptions.maxEventsPerSecond
+                : defaultMaxEventsPerSecond;
+        if (this.sampleRate < 1) {
+            throw new IllegalArgumentException("Event logging sample rate must be at least 1");
+        }
+        if (this.maxEventsPerSecond < 1) {
+            throw new IllegalArgumentException("Event logging max events per second must be at least 1");
+        }
+        this.sampledEventCount = new AtomicLong();
+        this.rateLimitWindowStart = new AtomicLong(System.nanoTime());
+        this.rateLimitWindowEventCount = new AtomicLong();
+        this.aggregatedEventCounts = new EnumMap<>(FintCacheEvent.EventType.class);
+        for (FintCacheEvent.EventType eventType : FintCacheEvent.EventType.values()) {
+            this.aggregatedEventCounts.put(eventType, new LongAdder());
+        }
+    }
+
+    @Override
+    public void onEvent(FintCacheEvent<K, V> event) {
+        if (this.shouldLog(event.getType())) {
+            this.log(event.getType(), event.getKey(), event.getOldValue(), event.getNewValue());
+        }
+    }
+
+    // Lets callers decide whether to log before they create an event
+    public boolean shouldLog(FintCacheEvent.EventType eventType) {
+        if (!log.isInfoEnabled()) {
+            return false;
+        }
+        return switch (this.mode) {
+            case OFF -> false;
+            case ALL -> true;
+            case SAMPLED -> this.sampledEventCount.getAndIncrement() % this.sampleRate == 0;
+            case RATE_LIMITED -> this.tryAcquireRateLimitPermit();
+            case AGGREGATED -> {
+                this.aggregatedEventCounts.get(eventType).increment();
+                yield false;
+            }
+        };
+    }
+
+    public void log(FintCacheEvent.EventType eventType, K key, V oldValue, V newValue) {
+        switch (eventType) {
+            case CREATED -> log.info("Cache entry in '{}' with key='{}' created with value={}",
+                    this.cacheAlias, key, newValue);
+            case UPDATED -> log.info("Cache entry in '{}' with key='{}' updated from {} to {}",
+                    this.cacheAlias, key, oldValue, newValue);
+            case REMOVED -> log.info("Cache entry in '{}' with key='{}' removed", this.cacheAlias, key);
+            case EVICTED -> log.info("Cache entry in '{}' with key='{}' evicted", this.cacheAlias, key);
+            case EXPIRED -> log.info("Cache entry in '{}' with key='{}' expired", this.cacheAlias, key);
+        }
+    }
+
+    private boolean tryAcquireRateLimitPermit() {
+        long now = System.nanoTime();
+        long windowStart = this.rateLimitWindowStart.get();
+        if (now - windowStart >= rateLimitWindowNanos && this.rateLimitWindowStart.compareAndSet(windowStart, now)) {
+            long suppressedEvents = this.rateLimitWindowEventCount.getAndSet(0) - this.maxEventsPerSecond;
+            if (suppressedEvents > 0) {
+                log.info("Suppressed logging of {} cache events in '{}'", suppressedEvents, this.cacheAlias);
+            }
+        }
+        return this.rateLimitWindowEventCount.incrementAndGet() <= this.maxEventsPerSecond;
+    }
+
+    public void flush() {
+        if (this.mode != FintCacheEventLoggingOptions.Mode.AGGREGATED || !log.isInfoEnabled()) {
+            return;
+        }
+        long created = this.aggregatedEventCounts.get(FintCacheEvent.EventType.CREATED).sumThenReset();
+        long updated = this.aggregatedEventCounts.get(FintCacheEvent.EventType.UPDATED).sumThenReset();
+        long removed = this.aggregatedEventCounts.get(FintCacheEvent.EventType.REMOVED).sumThenReset();
+        long expired = this.aggregatedEventCounts.get(FintCacheEvent.EventType.EXPIRED).sumThenReset();
+        long evicted = this.aggregatedEventCounts.get(FintCacheEvent.EventType.EVICTED).sumThenReset();
+        if (created + updated + removed + expired + evicted > 0) {
+            log.info("Cache entries in '{}' since last flush: created={}, updated={}, removed={}, expired={}, evicted={}",
+                    this.cacheAlias, created, updated, removed, expired, evicted);
+        }
+    }
+
+}
@@ -0,0 +1,19 @@
+package no.novari.cache;
+
+import lombok.Builder;
+
+import java.time.Duration;
+
+@Builder
+public class FintCacheEventLoggingOptions {
+
+    public enum Mode {
+        OFF, ALL, SAMPLED, RATE_LIMITED, AGGREGATED
+    }
+
+    public final Mode mode;
+    public final Long sampleRate;
+    public final Long maxEventsPerSecond;
+    public final Duration aggregationInterval;
+
+}
@@ -0,0 +1,13 @@
+package no.novari.cache;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+public final class FintCacheExecutors {
+
+    public static final Executor defaultExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private FintCacheExecutors() {
+    }
+
+}
@@ -0,0 +1,123 @@
+package no.novari.cache;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class FintCacheExpiry<K, V> implements FintCacheEventListener<K, V> {
+
+    private record WriteTime(long writtenAt, long timeToLiveNanos, Duration entryTimeToLive) {
+    }
+
+    private record EntryTimeToLive<K>(K key, Duration timeToLive) {
+    }
+
+    private final Duration timeToLive;
+    private final Duration timeToIdle;
+    private final boolean trackingWriteTimes;
+    private final ThreadLocal<EntryTimeToLive<K>> entryTimeToLive;
+    private final ConcurrentMap<K, WriteTime> writeTimes;
+
+    public FintCacheExpiry(Duration timeToLive, Duration timeToIdle) {
+        this(timeToLive, timeToIdle, false);
+    }
+
+    public FintCacheExpiry(Duration timeToLive, Duration timeToIdle, boolean trackingWriteTimes) {
+        if (timeToIdle != null && (timeToIdle.isNegative() || timeToIdle.isZero())) {
+            throw new IllegalArgumentException("Time to idle must be positive");
+        }
+        this.timeToLive = timeToLive;
+        this.timeToIdle = timeToIdle;
+        this.trackingWriteTimes = trackingWriteTimes || timeToIdle != null;
+        this.entryTimeToLive = new ThreadLocal<>();
+        this.writeTimes = new ConcurrentHashMap<>();
+    }
+
+    public boolean isTrackingWriteTimes() {
+        return this.trackingWriteTimes;
+    }
+
+    // Only applies to the given key, so writes of other entries made while it is set keep the cache time to live
+    public void withTimeToLive(K key, Duration timeToLive, Runnable write) {
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        this.entryTimeToLive.set(new EntryTimeToLive<>(key, timeToLive));
+        try {
+            write.run();
+        } finally {
+            this.entryTimeToLive.remove();
+        }
+    }
+
+    public Duration expireAfterWrite(K key) {
+        EntryTimeToLive<K> entryTimeToLive = this.entryTimeToLive.get();
+        Duration givenTimeToLive = entryTimeToLive != null && entryTimeToLive.key().equals(key)
+                ? entryTimeToLive.timeToLive()
+                : null;
+        Duration timeToLive = givenTimeToLive != null ? givenTimeToLive : this.timeToLive;
+        if (this.trackingWriteTimes) {
+            this.writeTimes.put(key, new WriteTime(System.nanoTime(), toNanos(timeToLive), givenTimeToLive));
+        }
+        if (this.timeToIdle == null) {
+            return timeToLive;
+        }
+        return timeToLive.compareTo(this.timeToIdle) < 0 ? timeToLive : this.timeToIdle;
+    }
+
+    // For entries that were not written through the cache, such as those restored from disk
+    public void recordWrite(K key) {
+        if (this.trackingWriteTimes) {
+            this.writeTimes.put(key, new WriteTime(System.nanoTime(), toNanos(this.timeToLive), null));
+        }
+    }
+
+    // True when the given fraction of the entry's own time to live has passed since it was last written
+    public boolean hasLivedFor(K key, double fractionOfTimeToLive) {
+        WriteTime writeTime = this.writeTimes.get(key);
+        return writeTime != null
+                && System.nanoTime() - writeTime.writtenAt() >= (long) (writeTime.timeToLiveNanos() * fractionOfTimeToLive);
+    }
+
+    // The time to live the entry was last written with, or null when it has the cache time to live
+    public Duration getEntryTimeToLive(K key) {
+        WriteTime writeTime = this.writeTimes.get(key);
+        return writeTime != null ? writeTime.entryTimeToLive() : null;
+    }
+
+    // Returns null when a read leaves the expiry unchanged
+    public Duration expireAfterRead(K key) {
+        if (this.timeToIdle == null) {
+            return null;
+        }
+        WriteTime writeTime = this.writeTimes.get(key);
+        if (writeTime == null) {
+            return this.timeToIdle;
+        }
+        long remainingTimeToLiveNanos = writeTime.timeToLiveNanos() - (System.nanoTime() - writeTime.writtenAt());
+        return Duration.ofNanos(Math.max(0, Math.min(remainingTimeToLiveNanos, toNanos(this.timeToIdle))));
+    }
+
+    @Override
+    public void onEvent(FintCacheEvent<K, V> event) {
+        switch (event.getType()) {
+            case REMOVED, EXPIRED, EVICTED -> this.writeTimes.remove(event.getKey());
+            case CREATED, UPDATED -> {
+            }
+        }
+    }
+
+    // Ehcache does not fire events on clear
+    public void reset() {
+        this.writeTimes.clear();
+    }
+
+    public static long toNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+}
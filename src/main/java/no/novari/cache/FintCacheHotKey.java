@@ -0,0 +1,4 @@
+package no.novari.cache;
+
+public record FintCacheHotKey(String key, long estimatedAccesses) {
+}
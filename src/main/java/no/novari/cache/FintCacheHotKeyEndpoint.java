@@ -0,0 +1,29 @@
+package no.novari.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.List;
+import java.util.Map;
+
+@Endpoint(id = "fintCacheHotKeys")
+public class FintCacheHotKeyEndpoint {
+
+    private final FintCacheManager cacheManager;
+
+    public FintCacheHotKeyEndpoint(FintCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @ReadOperation
+    public Map<String, List<FintCacheHotKey>> hotKeys() {
+        return this.cacheManager.getHotKeys();
+    }
+
+    @ReadOperation
+    public List<FintCacheHotKey> hotKeys(@Selector String alias) {
+        return this.cacheManager.getHotKeys().get(alias);
+    }
+
+}
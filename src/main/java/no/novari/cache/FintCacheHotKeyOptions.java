@@ -0,0 +1,11 @@
+package no.novari.cache;
+
+import lombok.Builder;
+
+@Builder
+public class FintCacheHotKeyOptions {
+
+    public final Integer sampleRate;
+    public final Integer numberOfTopKeys;
+
+}
@@ -0,0 +1,114 @@
+package no.novari.cache;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class FintCacheHotKeyTracker<K> {
+
+    private static final int defaultSampleRate = 16;
+    private static final int defaultNumberOfTopKeys = 10;
+    private static final int sketchWidthBits = 10;
+    private static final int[] sketchSeeds = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+    private static final int samplesPerAgingPeriod = 10 << sketchWidthBits;
+
+    private static final class TopKey<K> {
+        private final K key;
+        private int count;
+
+        private TopKey(K key, int count) {
+            this.key = key;
+            this.count = count;
+        }
+    }
+
+    private final int sampleRate;
+    private final int numberOfTopKeys;
+    private final int[][] sketch;
+    private final Map<K, TopKey<K>> topKeys;
+    private final PriorityQueue<TopKey<K>> topKeyHeap;
+    private final ReentrantLock lock;
+    private int samplesSinceAging;
+
+    public FintCacheHotKeyTracker(FintCacheHotKeyOptions hotKeyOptions) {
+        this.sampleRate = hotKeyOptions.sampleRate != null ? hotKeyOptions.sampleRate : defaultSampleRate;
+        this.numberOfTopKeys = hotKeyOptions.numberOfTopKeys != null ? hotKeyOptions.numberOfTopKeys : defaultNumberOfTopKeys;
+        if (this.sampleRate < 1 || this.numberOfTopKeys < 1) {
+            throw new IllegalArgumentException("Hot key sample rate and number of top keys must be at least 1");
+        }
+        this.sketch = new int[sketchSeeds.length][1 << sketchWidthBits];
+        this.topKeys = new HashMap<>();
+        this.topKeyHeap = new PriorityQueue<>(Comparator.comparingInt((TopKey<K> topKey) -> topKey.count));
+        this.lock = new ReentrantLock();
+    }
+
+    public boolean isSampled() {
+        return this.sampleRate == 1 || ThreadLocalRandom.current().nextInt(this.sampleRate) == 0;
+    }
+
+    // A sample is dropped rather than waited for when another thread is recording
+    public void record(K key) {
+        if (key == null || !this.lock.tryLock()) {
+            return;
+        }
+        try {
+            int count = this.increment(key.hashCode());
+            TopKey<K> topKey = this.topKeys.get(key);
+            if (topKey != null) {
+                this.topKeyHeap.remove(topKey);
+                topKey.count = count;
+                this.topKeyHeap.add(topKey);
+            } else if (this.topKeyHeap.size() < this.numberOfTopKeys || count > this.topKeyHeap.peek().count) {
+                if (this.topKeyHeap.size() >= this.numberOfTopKeys) {
+                    this.topKeys.remove(this.topKeyHeap.poll().key);
+                }
+                TopKey<K> addedTopKey = new TopKey<>(key, count);
+                this.topKeys.put(key, addedTopKey);
+                this.topKeyHeap.add(addedTopKey);
+            }
+            if (++this.samplesSinceAging >= samplesPerAgingPeriod) {
+                this.age();
+            }
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private int increment(int hashCode) {
+        int hash = hashCode ^ (hashCode >>> 16);
+        int count = Integer.MAX_VALUE;
+        for (int row = 0; row < sketchSeeds.length; row++) {
+            int column = (hash * sketchSeeds[row]) >>> (Integer.SIZE - sketchWidthBits);
+            count = Math.min(count, ++this.sketch[row][column]);
+        }
+        return count;
+    }
+
+    // Halving keeps counts bounded and lets keys that are no longer hot fall out of the top keys
+    private void age() {
+        for (int[] row : this.sketch) {
+            for (int column = 0; column < row.length; column++) {
+                row[column] >>>= 1;
+            }
+        }
+        this.topKeyHeap.forEach(topKey -> topKey.count >>>= 1);
+        this.samplesSinceAging = 0;
+    }
+
+    public List<FintCacheHotKey> getHotKeys() {
+        this.lock.lock();
+        try {
+            return this.topKeyHeap.stream()
+                    .sorted(Comparator.comparingInt((TopKey<K> topKey) -> topKey.count).reversed())
+                    .map(topKey -> new FintCacheHotKey(String.valueOf(topKey.key), (long) topKey.count * this.sampleRate))
+                    .toList();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+}
@@ -11,4 +11,5 @@ public class FintCacheInfo {
     private final String alias;
     private final long numberOfEntries;
     private final long numberOfDistinctEntries;
+    private final Long estimatedRetainedBytes;
 }
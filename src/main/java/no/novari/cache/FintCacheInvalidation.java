@@ -0,0 +1,23 @@
+package no.novari.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.Set;
+
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class FintCacheInvalidation {
+
+    private final String sourceId;
+    private final String alias;
+    private final Set<?> keys;
+
+    @Override
+    public String toString() {
+        return "FintCacheInvalidation{sourceId='" + this.sourceId + "', alias='" + this.alias + "', keys=" + this.keys.size() + "}";
+    }
+
+}
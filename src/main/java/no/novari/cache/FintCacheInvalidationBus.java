@@ -0,0 +1,143 @@
+package no.novari.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+@Slf4j
+public class FintCacheInvalidationBus {
+
+    private static final int defaultBatchSize = 100;
+    private static final Duration defaultMaxDelay = Duration.ofMillis(100);
+
+    private final String sourceId;
+    private final FintCacheInvalidationTransport transport;
+    private final Consumer<FintCacheInvalidation> subscriber;
+    private final Map<String, CacheInvalidations<?, ?>> cacheInvalidations;
+
+    public FintCacheInvalidationBus(FintCacheInvalidationTransport transport) {
+        this.sourceId = UUID.randomUUID().toString();
+        this.transport = transport;
+        this.subscriber = this::apply;
+        this.cacheInvalidations = new ConcurrentHashMap<>();
+        this.transport.subscribe(this.subscriber);
+    }
+
+    public <K, V> Duration register(FintCache<K, V> cache, FintCacheInvalidationOptions invalidationOptions) {
+        int batchSize = invalidationOptions.batchSize != null ? invalidationOptions.batchSize : defaultBatchSize;
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Invalidation batch size must be at least 1");
+        }
+        CacheInvalidations<K, V> invalidations = new CacheInvalidations<>(cache, batchSize);
+        this.cacheInvalidations.put(cache.getAlias(), invalidations);
+        cache.addEventListener(
+                invalidations,
+                FintCacheEventListenerOptions.builder()
+                        .ordered(false)
+                        .eventTypes(Set.of(
+                                FintCacheEvent.EventType.CREATED,
+                                FintCacheEvent.EventType.UPDATED,
+                                FintCacheEvent.EventType.REMOVED
+                        ))
+                        .build()
+        );
+        return invalidationOptions.maxDelay != null ? invalidationOptions.maxDelay : defaultMaxDelay;
+    }
+
+    public void unregister(String alias) {
+        Optional.ofNullable(this.cacheInvalidations.remove(alias)).ifPresent(CacheInvalidations::flush);
+    }
+
+    public void flush(String alias) {
+        Optional.ofNullable(this.cacheInvalidations.get(alias)).ifPresent(CacheInvalidations::flush);
+    }
+
+    public void close() {
+        this.cacheInvalidations.values().forEach(CacheInvalidations::flush);
+        this.transport.unsubscribe(this.subscriber);
+    }
+
+    private void apply(FintCacheInvalidation invalidation) {
+        if (this.sourceId.equals(invalidation.getSourceId())) {
+            return;
+        }
+        CacheInvalidations<?, ?> invalidations = this.cacheInvalidations.get(invalidation.getAlias());
+        if (invalidations != null) {
+            invalidations.invalidate(invalidation.getKeys());
+        }
+    }
+
+    private class CacheInvalidations<K, V> implements FintCacheEventListener<K, V> {
+
+        private final FintCache<K, V> cache;
+        private final int batchSize;
+        private final Set<K> pendingKeys;
+        private final AtomicBoolean flushRequested;
+
+        private CacheInvalidations(FintCache<K, V> cache, int batchSize) {
+            this.cache = cache;
+            this.batchSize = batchSize;
+            this.pendingKeys = ConcurrentHashMap.newKeySet();
+            this.flushRequested = new AtomicBoolean();
+        }
+
+        @Override
+        public void onEvent(FintCacheEvent<K, V> event) {
+            // Removals applied from peers are not published again, and loaded values are as fresh as a peer's own load
+            if (event.isInvalidation() || event.isLoaded()) {
+                return;
+            }
+            this.pendingKeys.add(event.getKey());
+            if (this.pendingKeys.size() >= this.batchSize && this.flushRequested.compareAndSet(false, true)) {
+                try {
+                    FintCacheExecutors.defaultExecutor.execute(() -> {
+                        try {
+                            this.flush();
+                        } finally {
+                            this.flushRequested.set(false);
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    this.flushRequested.set(false);
+                }
+            }
+        }
+
+        private synchronized void flush() {
+            while (!this.pendingKeys.isEmpty()) {
+                Set<K> keys = new HashSet<>();
+                Iterator<K> pendingKeyIterator = this.pendingKeys.iterator();
+                while (pendingKeyIterator.hasNext() && keys.size() < this.batchSize) {
+                    K key = pendingKeyIterator.next();
+                    if (this.pendingKeys.remove(key)) {
+                        keys.add(key);
+                    }
+                }
+                try {
+                    transport.publish(new FintCacheInvalidation(sourceId, this.cache.getAlias(), keys));
+                } catch (RuntimeException e) {
+                    log.warn("Publishing invalidation of {} keys in cache '{}' failed", keys.size(), this.cache.getAlias(), e);
+                    this.pendingKeys.addAll(keys);
+                    return;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void invalidate(Set<?> keys) {
+            this.cache.invalidate((Set<K>) keys);
+        }
+
+    }
+
+}
@@ -0,0 +1,14 @@
+package no.novari.cache;
+
+import lombok.Builder;
+
+import java.time.Duration;
+
+@Builder
+public class FintCacheInvalidationOptions {
+
+    public final FintCacheInvalidationTransport transport;
+    public final Integer batchSize;
+    public final Duration maxDelay;
+
+}
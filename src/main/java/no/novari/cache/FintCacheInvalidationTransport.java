@@ -0,0 +1,13 @@
+package no.novari.cache;
+
+import java.util.function.Consumer;
+
+public interface FintCacheInvalidationTransport {
+
+    void publish(FintCacheInvalidation invalidation);
+
+    void subscribe(Consumer<FintCacheInvalidation> subscriber);
+
+    void unsubscribe(Consumer<FintCacheInvalidation> subscriber);
+
+}
@@ -0,0 +1,23 @@
+package no.novari.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.Set;
+
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class FintCacheLookupResult<K, V> {
+
+    private final Map<K, V> hits;
+    private final Set<K> missingKeys;
+
+    @Override
+    public String toString() {
+        return String.format("FintCacheLookupResult{hits=%d, missingKeys=%d}", this.hits.size(), this.missingKeys.size());
+    }
+
+}
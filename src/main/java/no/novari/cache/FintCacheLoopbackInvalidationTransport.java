@@ -0,0 +1,26 @@
+package no.novari.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+public class FintCacheLoopbackInvalidationTransport implements FintCacheInvalidationTransport {
+
+    private final List<Consumer<FintCacheInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(FintCacheInvalidation invalidation) {
+        this.subscribers.forEach(subscriber -> subscriber.accept(invalidation));
+    }
+
+    @Override
+    public void subscribe(Consumer<FintCacheInvalidation> subscriber) {
+        this.subscribers.add(subscriber);
+    }
+
+    @Override
+    public void unsubscribe(Consumer<FintCacheInvalidation> subscriber) {
+        this.subscribers.remove(subscriber);
+    }
+
+}
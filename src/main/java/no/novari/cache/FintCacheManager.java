@@ -1,13 +1,59 @@
 package no.novari.cache;
 
-public interface FintCacheManager {
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public interface FintCacheManager extends AutoCloseable {
 
     <K, V> FintCache<K, V> createCache(String alias, Class<K> keyClass, Class<V> valueClass);
 
     <K, V> FintCache<K, V> createCache(String alias, Class<K> keyClass, Class<V> valueClass, FintCacheOptions cacheOptions);
 
+    <K, V> FintCache<K, V> createCache(
+            String alias,
+            Class<K> keyClass,
+            Class<V> valueClass,
+            FintCacheOptions cacheOptions,
+            Function<? super K, ? extends V> refreshLoader
+    );
+
     <K, V> FintCache<K, V> getCache(String alias, Class<K> keyClass, Class<V> valueClass);
 
     <K, V> void removeCache(String alias);
 
+    <V> FintLongKeyCache<V> createLongKeyCache(String alias, Class<V> valueClass);
+
+    <V> FintLongKeyCache<V> createLongKeyCache(String alias, Class<V> valueClass, FintCacheOptions cacheOptions);
+
+    <V> FintLongKeyCache<V> getLongKeyCache(String alias, Class<V> valueClass);
+
+    Map<String, List<FintCacheHotKey>> getHotKeys();
+
+    default <K, V> long exportSnapshot(
+            String alias,
+            Class<K> keyClass,
+            Class<V> valueClass,
+            Path file,
+            FintCacheSerializer<K> keySerializer,
+            FintCacheSerializer<V> valueSerializer
+    ) {
+        return FintCacheSnapshot.write(this.getCache(alias, keyClass, valueClass), file, keySerializer, valueSerializer);
+    }
+
+    default <K, V> long importSnapshot(
+            String alias,
+            Class<K> keyClass,
+            Class<V> valueClass,
+            Path file,
+            FintCacheSerializer<K> keySerializer,
+            FintCacheSerializer<V> valueSerializer
+    ) {
+        return FintCacheSnapshot.read(this.getCache(alias, keyClass, valueClass), file, keySerializer, valueSerializer);
+    }
+
+    @Override
+    void close();
+
 }
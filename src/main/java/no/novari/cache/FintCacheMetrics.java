@@ -0,0 +1,112 @@
+package no.novari.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+public class FintCacheMetrics extends CacheMeterBinder<FintCache<?, ?>> {
+
+    private final FintCache<?, ?> cache;
+    private final FintCacheStatistics<?, ?> statistics;
+    private final FintCacheWriteBehind<?, ?> writeBehind;
+
+    public FintCacheMetrics(FintCache<?, ?> cache, FintCacheStatistics<?, ?> statistics, Iterable<Tag> tags) {
+        this(cache, statistics, null, tags);
+    }
+
+    public FintCacheMetrics(
+            FintCache<?, ?> cache,
+            FintCacheStatistics<?, ?> statistics,
+            FintCacheWriteBehind<?, ?> writeBehind,
+            Iterable<Tag> tags
+    ) {
+        super(cache, cache.getAlias(), tags);
+        this.cache = cache;
+        this.statistics = statistics;
+        this.writeBehind = writeBehind;
+    }
+
+    @Override
+    protected Long size() {
+        return this.cache.getNumberOfEntries();
+    }
+
+    @Override
+    protected long hitCount() {
+        return this.statistics.getHits();
+    }
+
+    @Override
+    protected Long missCount() {
+        return this.statistics.getMisses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return this.statistics.getEvictions();
+    }
+
+    @Override
+    protected long putCount() {
+        return this.statistics.getPuts();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("cache.removals", this.statistics, FintCacheStatistics::getRemovals)
+                .tags(this.getTagsWithCacheName())
+                .description("The number of entries removed from the cache")
+                .register(registry);
+
+        FunctionCounter.builder("cache.expirations", this.statistics, FintCacheStatistics::getExpirations)
+                .tags(this.getTagsWithCacheName())
+                .description("The number of entries expired from the cache")
+                .register(registry);
+
+        Map<FintCacheStatistics.Operation, Timer> operationTimers = new EnumMap<>(FintCacheStatistics.Operation.class);
+        for (FintCacheStatistics.Operation operation : FintCacheStatistics.Operation.values()) {
+            operationTimers.put(operation, Timer.builder("cache.operations")
+                    .tags(this.getTagsWithCacheName())
+                    .tag("operation", operation.name().toLowerCase(Locale.ROOT))
+                    .description("The time spent on cache operations")
+                    .register(registry));
+        }
+        this.statistics.bindOperationTimers(operationTimers);
+
+        if (this.writeBehind != null) {
+            this.bindWriteBehindMetrics(registry);
+        }
+    }
+
+    private void bindWriteBehindMetrics(MeterRegistry registry) {
+        Gauge.builder("cache.write.behind.queue.size", this.writeBehind, FintCacheWriteBehind::getQueueSize)
+                .tags(this.getTagsWithCacheName())
+                .description("The number of entries waiting to be written to the backing store")
+                .register(registry);
+
+        FunctionCounter.builder("cache.write.behind.writes", this.writeBehind, FintCacheWriteBehind::getWrittenEntries)
+                .tags(this.getTagsWithCacheName())
+                .description("The number of entries written to the backing store")
+                .register(registry);
+
+        FunctionCounter.builder("cache.write.behind.batches", this.writeBehind, FintCacheWriteBehind::getFlushedBatches)
+                .tags(this.getTagsWithCacheName())
+                .tag("result", "success")
+                .description("The number of batches flushed to the backing store")
+                .register(registry);
+
+        FunctionCounter.builder("cache.write.behind.batches", this.writeBehind, FintCacheWriteBehind::getFailedBatches)
+                .tags(this.getTagsWithCacheName())
+                .tag("result", "failure")
+                .description("The number of batches that failed to be written to the backing store")
+                .register(registry);
+    }
+
+}
@@ -1,6 +1,7 @@
 package no.novari.cache;
 
 import lombok.Builder;
+import org.springframework.util.unit.DataSize;
 
 import java.time.Duration;
 
@@ -8,6 +9,21 @@ import java.time.Duration;
 public class FintCacheOptions {
 
     public final Duration timeToLive;
+    public final Duration timeToIdle;
     public final Long heapSize;
+    public final DataSize heapMemorySize;
+    public final DataSize offHeapSize;
+    public final DataSize diskSize;
+    public final Boolean persistent;
+    public final FintCacheSerializer<?> keySerializer;
+    public final FintCacheSerializer<?> valueSerializer;
+    public final Boolean indexDistinctValues;
+    public final Boolean internValues;
+    public final FintCacheWeigher<?, ?> weigher;
+    public final FintCacheEventLoggingOptions eventLogging;
+    public final FintCacheRefreshAheadOptions refreshAhead;
+    public final FintCacheWriteBehindOptions writeBehind;
+    public final FintCacheInvalidationOptions invalidation;
+    public final FintCacheHotKeyOptions hotKeys;
 
 }
@@ -0,0 +1,11 @@
+package no.novari.cache;
+
+import java.util.Map;
+
+public interface FintCachePreloader<K, V> {
+
+    String getAlias();
+
+    Map<? extends K, ? extends V> load();
+
+}
@@ -0,0 +1,46 @@
+package no.novari.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "novari.cache")
+public record FintCacheProperties(Map<String, CacheDefinition> caches) {
+
+    public FintCacheProperties {
+        caches = caches != null ? Map.copyOf(caches) : Map.of();
+    }
+
+    public record CacheDefinition(
+            Class<?> keyClass,
+            Class<?> valueClass,
+            Duration timeToLive,
+            Duration timeToIdle,
+            Long heapSize,
+            DataSize heapMemorySize,
+            DataSize offHeapSize,
+            DataSize diskSize,
+            Boolean persistent,
+            Boolean indexDistinctValues,
+            Boolean internValues
+    ) {
+
+        public FintCacheOptions toCacheOptions() {
+            return FintCacheOptions.builder()
+                    .timeToLive(this.timeToLive)
+                    .timeToIdle(this.timeToIdle)
+                    .heapSize(this.heapSize)
+                    .heapMemorySize(this.heapMemorySize)
+                    .offHeapSize(this.offHeapSize)
+                    .diskSize(this.diskSize)
+                    .persistent(this.persistent)
+                    .indexDistinctValues(this.indexDistinctValues)
+                    .internValues(this.internValues)
+                    .build();
+        }
+
+    }
+
+}
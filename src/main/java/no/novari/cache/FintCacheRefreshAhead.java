@@ -0,0 +1,88 @@
+package no.novari.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+@Slf4j
+public class FintCacheRefreshAhead<K, V> {
+
+    private static final double defaultThreshold = 0.8;
+    private static final int defaultMaxConcurrentRefreshes = 4;
+
+    private final FintCacheExpiry<K, V> expiry;
+    private final Function<? super K, ? extends V> loader;
+    private final double threshold;
+    private final Executor executor;
+    private final Semaphore refreshPermits;
+    private final Set<K> refreshingKeys;
+
+    public FintCacheRefreshAhead(
+            FintCacheExpiry<K, V> expiry,
+            Function<? super K, ? extends V> loader,
+            FintCacheRefreshAheadOptions refreshAheadOptions
+    ) {
+        if (!expiry.isTrackingWriteTimes()) {
+            throw new IllegalArgumentException("Refresh-ahead requires an expiry that tracks write times");
+        }
+        this.threshold = refreshAheadOptions.threshold != null ? refreshAheadOptions.threshold : defaultThreshold;
+        if (this.threshold <= 0 || this.threshold >= 1) {
+            throw new IllegalArgumentException("Refresh-ahead threshold must be between 0 and 1");
+        }
+        this.expiry = expiry;
+        this.loader = loader;
+        this.executor = refreshAheadOptions.executor != null ? refreshAheadOptions.executor : FintCacheExecutors.defaultExecutor;
+        this.refreshPermits = new Semaphore(refreshAheadOptions.maxConcurrentRefreshes != null
+                ? refreshAheadOptions.maxConcurrentRefreshes
+                : defaultMaxConcurrentRefreshes
+        );
+        this.refreshingKeys = ConcurrentHashMap.newKeySet();
+    }
+
+    public void onHit(FintCache<K, V> cache, K key) {
+        if (!this.expiry.hasLivedFor(key, this.threshold)) {
+            return;
+        }
+        if (!this.refreshingKeys.add(key)) {
+            return;
+        }
+        if (!this.refreshPermits.tryAcquire()) {
+            this.refreshingKeys.remove(key);
+            return;
+        }
+        try {
+            this.executor.execute(() -> this.refresh(cache, key));
+        } catch (RejectedExecutionException e) {
+            this.refreshingKeys.remove(key);
+            this.refreshPermits.release();
+        }
+    }
+
+    private void refresh(FintCache<K, V> cache, K key) {
+        try {
+            V value = this.loader.apply(key);
+            if (value != null) {
+                // An entry written with its own time to live keeps it when refreshed
+                Duration entryTimeToLive = this.expiry.getEntryTimeToLive(key);
+                if (entryTimeToLive != null) {
+                    this.expiry.withTimeToLive(key, entryTimeToLive, () -> cache.putLoaded(Map.of(key, value)));
+                } else {
+                    cache.putLoaded(Map.of(key, value));
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Refresh-ahead of cache entry in '{}' failed", cache.getAlias(), e);
+        } finally {
+            this.refreshingKeys.remove(key);
+            this.refreshPermits.release();
+        }
+    }
+
+}
@@ -0,0 +1,14 @@
+package no.novari.cache;
+
+import lombok.Builder;
+
+import java.util.concurrent.Executor;
+
+@Builder
+public class FintCacheRefreshAheadOptions {
+
+    public final Double threshold;
+    public final Integer maxConcurrentRefreshes;
+    public final Executor executor;
+
+}
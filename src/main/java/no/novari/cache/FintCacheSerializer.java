@@ -0,0 +1,9 @@
+package no.novari.cache;
+
+public interface FintCacheSerializer<T> {
+
+    byte[] serialize(T object);
+
+    T deserialize(byte[] bytes);
+
+}
@@ -0,0 +1,146 @@
+package no.novari.cache;
+
+import no.novari.cache.exceptions.NoSuchCacheEntryException;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+public class FintCacheSingleFlightLoader<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlightLoads = new ConcurrentHashMap<>();
+
+    public V getOrLoad(FintCache<K, V> cache, K key, Function<? super K, ? extends V> loader) {
+        Optional<V> cachedValue = cache.getOptional(key);
+        if (cachedValue.isPresent()) {
+            return cachedValue.get();
+        }
+        CompletableFuture<V> load = new CompletableFuture<>();
+        CompletableFuture<V> inFlightLoad = this.inFlightLoads.putIfAbsent(key, load);
+        V value = inFlightLoad != null
+                ? join(inFlightLoad)
+                : this.load(cache, key, loader, load);
+        if (value == null) {
+            throw new NoSuchCacheEntryException(key.toString());
+        }
+        return value;
+    }
+
+    private V load(FintCache<K, V> cache, K key, Function<? super K, ? extends V> loader, CompletableFuture<V> load) {
+        try {
+            // Another load may have completed between the miss and claiming the key
+            V value = cache.getOptional(key).orElse(null);
+            if (value == null) {
+                value = loader.apply(key);
+                if (value != null) {
+                    cache.putLoaded(Map.of(key, value));
+                }
+            }
+            load.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.inFlightLoads.remove(key, load);
+        }
+    }
+
+    public Map<K, V> getAllOrLoad(
+            FintCache<K, V> cache,
+            Collection<K> keys,
+            Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> loader
+    ) {
+        FintCacheLookupResult<K, V> lookupResult = cache.lookup(keys);
+        if (lookupResult.getMissingKeys().isEmpty()) {
+            return lookupResult.getHits();
+        }
+
+        Map<K, CompletableFuture<V>> claimedLoads = new LinkedHashMap<>();
+        Map<K, CompletableFuture<V>> inFlightLoads = new LinkedHashMap<>();
+        for (K key : lookupResult.getMissingKeys()) {
+            CompletableFuture<V> load = new CompletableFuture<>();
+            CompletableFuture<V> inFlightLoad = this.inFlightLoads.putIfAbsent(key, load);
+            if (inFlightLoad != null) {
+                inFlightLoads.put(key, inFlightLoad);
+            } else {
+                claimedLoads.put(key, load);
+            }
+        }
+
+        Map<K, V> loadedValues = new LinkedHashMap<>(lookupResult.getHits());
+        if (!claimedLoads.isEmpty()) {
+            this.loadAll(cache, claimedLoads, loader).forEach((key, value) -> {
+                if (value != null) {
+                    loadedValues.put(key, value);
+                }
+            });
+        }
+        inFlightLoads.forEach((key, inFlightLoad) -> {
+            V value = join(inFlightLoad);
+            if (value != null) {
+                loadedValues.put(key, value);
+            }
+        });
+
+        Map<K, V> result = new LinkedHashMap<>();
+        for (K key : keys) {
+            V value = loadedValues.get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return result;
+    }
+
+    private Map<K, V> loadAll(
+            FintCache<K, V> cache,
+            Map<K, CompletableFuture<V>> claimedLoads,
+            Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> loader
+    ) {
+        try {
+            // Other loads may have completed between the misses and claiming the keys
+            Map<K, V> cachedValues = cache.getAllPresent(claimedLoads.keySet());
+            Set<K> missingKeys = new LinkedHashSet<>(claimedLoads.keySet());
+            missingKeys.removeAll(cachedValues.keySet());
+            Map<K, V> loadedValues = new LinkedHashMap<>();
+            Map<? extends K, ? extends V> loaderResult = missingKeys.isEmpty() ? null : loader.apply(missingKeys);
+            if (loaderResult != null) {
+                loaderResult.forEach((key, value) -> {
+                    if (value != null) {
+                        loadedValues.put(key, value);
+                    }
+                });
+            }
+            cache.putLoaded(loadedValues);
+            loadedValues.putAll(cachedValues);
+            claimedLoads.forEach((key, load) -> load.complete(loadedValues.get(key)));
+            return loadedValues;
+        } catch (RuntimeException e) {
+            claimedLoads.values().forEach(load -> load.completeExceptionally(e));
+            throw e;
+        } finally {
+            claimedLoads.forEach(this.inFlightLoads::remove);
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+}
@@ -0,0 +1,190 @@
+package no.novari.cache;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public final class FintCacheSizeEstimator {
+
+    private static final int objectHeaderBytes = 12;
+    private static final int arrayHeaderBytes = 16;
+    private static final int referenceBytes = 4;
+    private static final int entryOverheadBytes = 32;
+    private static final int maxVisitedObjects = 100_000;
+
+    private static final ConcurrentMap<Class<?>, List<Field>> referenceFields = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Class<?>, Long> shallowSizes = new ConcurrentHashMap<>();
+
+    private FintCacheSizeEstimator() {
+    }
+
+    public static long estimateRetainedBytes(FintCache<?, ?> cache, int sampleSize) {
+        long numberOfEntries = cache.getNumberOfEntries();
+        if (numberOfEntries == 0) {
+            return 0;
+        }
+        LongSummaryStatistics sample = cache.stream()
+                .limit(sampleSize)
+                .mapToLong(entry -> estimateEntry(entry.getKey(), entry.getValue()))
+                .summaryStatistics();
+        return sample.getCount() == 0 ? 0 : (long) (sample.getAverage() * numberOfEntries);
+    }
+
+    // Cached values may be mutated while they are walked, in which case the size is unknown and null is returned
+    public static Long tryEstimateRetainedBytes(FintCache<?, ?> cache, int sampleSize) {
+        try {
+            return estimateRetainedBytes(cache, sampleSize);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    public static long estimateEntry(Object key, Object value) {
+        return entryOverheadBytes + estimate(key) + estimate(value);
+    }
+
+    // Sizes only the key and value objects themselves, which is cheap enough to run on every write
+    public static long estimateShallowEntry(Object key, Object value) {
+        return entryOverheadBytes
+                + (key != null ? shallowSize(key) : 0)
+                + (value != null ? shallowSize(value) : 0);
+    }
+
+    public static long estimate(Object object) {
+        if (object == null) {
+            return 0;
+        }
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> pending = new ArrayDeque<>();
+        pending.push(object);
+        long bytes = 0;
+        while (!pending.isEmpty() && visited.size() < maxVisitedObjects) {
+            Object current = pending.pop();
+            if (isShared(current) || !visited.add(current)) {
+                continue;
+            }
+            bytes += shallowSize(current);
+            pushReferences(current, pending);
+        }
+        return bytes;
+    }
+
+    private static boolean isShared(Object object) {
+        return object instanceof Class<?> || object instanceof Enum<?>;
+    }
+
+    private static long shallowSize(Object object) {
+        Class<?> type = object.getClass();
+        if (type.isArray()) {
+            long elementBytes = type.getComponentType().isPrimitive()
+                    ? primitiveSize(type.getComponentType())
+                    : referenceBytes;
+            return align(arrayHeaderBytes + elementBytes * Array.getLength(object));
+        }
+        if (object instanceof String string) {
+            // Compact strings store Latin-1 text with one byte per character
+            return align(objectHeaderBytes + 12) + align(arrayHeaderBytes + string.length());
+        }
+        long bytes = shallowSizes.computeIfAbsent(type, FintCacheSizeEstimator::instanceSize);
+        if (object instanceof Collection<?> collection) {
+            bytes += align(arrayHeaderBytes + (long) referenceBytes * collection.size());
+        } else if (object instanceof Map<?, ?> map) {
+            bytes += align(arrayHeaderBytes + (long) referenceBytes * map.size()) + (long) entryOverheadBytes * map.size();
+        }
+        return bytes;
+    }
+
+    private static long instanceSize(Class<?> type) {
+        long bytes = objectHeaderBytes;
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    bytes += field.getType().isPrimitive() ? primitiveSize(field.getType()) : referenceBytes;
+                }
+            }
+        }
+        return align(bytes);
+    }
+
+    private static void pushReferences(Object object, Deque<Object> pending) {
+        Class<?> type = object.getClass();
+        if (type.isArray()) {
+            if (!type.getComponentType().isPrimitive()) {
+                for (int i = 0; i < Array.getLength(object); i++) {
+                    push(pending, Array.get(object, i));
+                }
+            }
+            return;
+        }
+        if (object instanceof String) {
+            return;
+        }
+        // JDK internals are not accessible, so their contents are estimated through their public views
+        if (type.getName().startsWith("java.")) {
+            if (object instanceof Collection<?> collection) {
+                collection.forEach(element -> push(pending, element));
+            } else if (object instanceof Map<?, ?> map) {
+                map.forEach((key, value) -> {
+                    push(pending, key);
+                    push(pending, value);
+                });
+            }
+            return;
+        }
+        for (Field field : referenceFields.computeIfAbsent(type, FintCacheSizeEstimator::accessibleReferenceFields)) {
+            try {
+                push(pending, field.get(object));
+            } catch (IllegalAccessException e) {
+                // Skip fields that cannot be read
+            }
+        }
+    }
+
+    private static void push(Deque<Object> pending, Object object) {
+        if (object != null) {
+            pending.push(object);
+        }
+    }
+
+    private static List<Field> accessibleReferenceFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current = type; current != null && !current.getName().startsWith("java."); current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive() && field.trySetAccessible()) {
+                    fields.add(field);
+                }
+            }
+        }
+        return List.copyOf(fields);
+    }
+
+    private static long primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+}
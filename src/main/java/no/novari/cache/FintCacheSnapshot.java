@@ -0,0 +1,275 @@
+package no.novari.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import no.novari.cache.exceptions.InvalidCacheSnapshotException;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Slf4j
+public final class FintCacheSnapshot {
+
+    private static final int magicNumber = 0x46435331;
+    private static final int formatVersion = 1;
+    private static final int endOfEntries = -1;
+    private static final int importBatchSize = 10_000;
+
+    private FintCacheSnapshot() {
+    }
+
+    public static <K, V> long write(
+            FintCache<K, V> cache,
+            Path file,
+            FintCacheSerializer<K> keySerializer,
+            FintCacheSerializer<V> valueSerializer
+    ) {
+        Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        long numberOfEntries = 0;
+        boolean written = false;
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile), 1 << 16))) {
+                output.writeInt(magicNumber);
+                output.writeInt(formatVersion);
+                Iterator<Map.Entry<K, V>> entries = cache.stream().iterator();
+                while (entries.hasNext()) {
+                    Map.Entry<K, V> entry = entries.next();
+                    writeBytes(output, keySerializer.serialize(entry.getKey()));
+                    writeBytes(output, valueSerializer.serialize(entry.getValue()));
+                    numberOfEntries++;
+                }
+                // The entry count is written last, so a truncated file is detected on import
+                output.writeInt(endOfEntries);
+                output.writeLong(numberOfEntries);
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            written = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (!written) {
+                deleteTemporaryFile(temporaryFile);
+            }
+        }
+        return numberOfEntries;
+    }
+
+    private static void deleteTemporaryFile(Path temporaryFile) {
+        try {
+            Files.deleteIfExists(temporaryFile);
+        } catch (IOException e) {
+            log.warn("Could not delete temporary snapshot file {}", temporaryFile, e);
+        }
+    }
+
+    private static void writeBytes(DataOutputStream output, byte[] bytes) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    public static <K, V> long read(
+            FintCache<K, V> cache,
+            Path file,
+            FintCacheSerializer<K> keySerializer,
+            FintCacheSerializer<V> valueSerializer
+    ) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long numberOfEntries = validate(file, channel);
+            MappedSnapshotReader reader = new MappedSnapshotReader(file, channel);
+            reader.skip(2 * Integer.BYTES);
+            Semaphore batchPermits = new Semaphore(Runtime.getRuntime().availableProcessors());
+            AtomicBoolean aborted = new AtomicBoolean();
+            List<CompletableFuture<Void>> batchImports = new ArrayList<>();
+            boolean imported = false;
+            try {
+                List<ByteBuffer> batch = new ArrayList<>(2 * importBatchSize);
+                int keyLength;
+                while ((keyLength = reader.readInt()) != endOfEntries) {
+                    batch.add(reader.slice(keyLength));
+                    batch.add(reader.slice(reader.readInt()));
+                    if (batch.size() == 2 * importBatchSize) {
+                        batchImports.add(importBatch(cache, batch, keySerializer, valueSerializer, batchPermits, aborted));
+                        batch = new ArrayList<>(2 * importBatchSize);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    batchImports.add(importBatch(cache, batch, keySerializer, valueSerializer, batchPermits, aborted));
+                }
+                CompletableFuture.allOf(batchImports.toArray(CompletableFuture[]::new)).join();
+                imported = true;
+            } finally {
+                if (!imported) {
+                    abort(batchImports, aborted);
+                }
+            }
+            return numberOfEntries;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // Walks the entry lengths and checks the trailer, so a damaged file is rejected before any entry is imported
+    private static long validate(Path file, FileChannel channel) throws IOException {
+        MappedSnapshotReader reader = new MappedSnapshotReader(file, channel);
+        if (reader.readInt() != magicNumber || reader.readInt() != formatVersion) {
+            throw new InvalidCacheSnapshotException(file.toString(), "unknown format");
+        }
+        long numberOfEntries = 0;
+        int keyLength;
+        while ((keyLength = reader.readInt()) != endOfEntries) {
+            reader.skip(keyLength);
+            reader.skip(reader.readInt());
+            numberOfEntries++;
+        }
+        if (reader.readLong() != numberOfEntries) {
+            throw new InvalidCacheSnapshotException(file.toString(), "entry count does not match");
+        }
+        if (reader.hasRemaining()) {
+            throw new InvalidCacheSnapshotException(file.toString(), "unexpected data after the entry count");
+        }
+        return numberOfEntries;
+    }
+
+    // Batches that have not started are skipped, and running ones are awaited so that no import outlives the call
+    private static void abort(List<CompletableFuture<Void>> batchImports, AtomicBoolean aborted) {
+        aborted.set(true);
+        for (CompletableFuture<Void> batchImport : batchImports) {
+            try {
+                batchImport.join();
+            } catch (CompletionException e) {
+                log.debug("Snapshot import batch failed after the import was aborted", e);
+            }
+        }
+    }
+
+    private static <K, V> CompletableFuture<Void> importBatch(
+            FintCache<K, V> cache,
+            List<ByteBuffer> batch,
+            FintCacheSerializer<K> keySerializer,
+            FintCacheSerializer<V> valueSerializer,
+            Semaphore batchPermits,
+            AtomicBoolean aborted
+    ) {
+        batchPermits.acquireUninterruptibly();
+        try {
+            return CompletableFuture.runAsync(() -> {
+                try {
+                    if (aborted.get()) {
+                        return;
+                    }
+                    Map<K, V> entries = new LinkedHashMap<>(Math.max(16, (int) (batch.size() / 2 / 0.75f) + 1));
+                    for (int i = 0; i < batch.size(); i += 2) {
+                        entries.put(
+                                keySerializer.deserialize(toBytes(batch.get(i))),
+                                valueSerializer.deserialize(toBytes(batch.get(i + 1)))
+                        );
+                    }
+                    cache.putLoaded(entries);
+                } catch (RuntimeException e) {
+                    aborted.set(true);
+                    throw e;
+                } finally {
+                    batchPermits.release();
+                }
+            }, FintCacheExecutors.defaultExecutor);
+        } catch (RejectedExecutionException e) {
+            batchPermits.release();
+            throw e;
+        }
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static class MappedSnapshotReader {
+
+        private final Path file;
+        private final FileChannel channel;
+        private final long size;
+        private MappedByteBuffer window;
+        private long windowStart;
+        private long position;
+
+        private MappedSnapshotReader(Path file, FileChannel channel) throws IOException {
+            this.file = file;
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        private int readInt() throws IOException {
+            int offset = this.ensureMapped(Integer.BYTES);
+            this.position += Integer.BYTES;
+            return this.window.getInt(offset);
+        }
+
+        private long readLong() throws IOException {
+            int offset = this.ensureMapped(Long.BYTES);
+            this.position += Long.BYTES;
+            return this.window.getLong(offset);
+        }
+
+        private void skip(int length) {
+            if (length < 0) {
+                throw new InvalidCacheSnapshotException(this.file.toString(), "negative entry length");
+            }
+            if (this.position + length > this.size) {
+                throw new InvalidCacheSnapshotException(this.file.toString(), "file is truncated");
+            }
+            this.position += length;
+        }
+
+        private boolean hasRemaining() {
+            return this.position < this.size;
+        }
+
+        private ByteBuffer slice(int length) throws IOException {
+            if (length < 0) {
+                throw new InvalidCacheSnapshotException(this.file.toString(), "negative entry length");
+            }
+            int offset = this.ensureMapped(length);
+            this.position += length;
+            return this.window.slice(offset, length);
+        }
+
+        // Maps a new window at the current position when the requested bytes are outside the current one
+        private int ensureMapped(int length) throws IOException {
+            if (this.position + length > this.size) {
+                throw new InvalidCacheSnapshotException(this.file.toString(), "file is truncated");
+            }
+            if (this.window == null || this.position + length > this.windowStart + this.window.capacity()) {
+                this.windowStart = this.position;
+                this.window = this.channel.map(
+                        FileChannel.MapMode.READ_ONLY,
+                        this.position,
+                        Math.min(Integer.MAX_VALUE, this.size - this.position)
+                );
+            }
+            return (int) (this.position - this.windowStart);
+        }
+
+    }
+
+}
@@ -0,0 +1,102 @@
+package no.novari.cache;
+
+import io.micrometer.core.instrument.Timer;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+public class FintCacheStatistics<K, V> implements FintCacheEventListener<K, V> {
+
+    public enum Operation {
+        GET, GET_BULK, PUT, PUT_BULK, PUT_IF_ABSENT, REPLACE, COMPUTE, MERGE, REMOVE, REMOVE_BULK
+    }
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder removals = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private volatile Map<Operation, Timer> operationTimers = Map.of();
+    private volatile FintCacheHotKeyTracker<K> hotKeyTracker;
+
+    @Override
+    public void onEvent(FintCacheEvent<K, V> event) {
+        this.recordEvent(event.getType());
+    }
+
+    public void recordEvent(FintCacheEvent.EventType eventType) {
+        switch (eventType) {
+            case CREATED, UPDATED -> this.puts.increment();
+            case REMOVED -> this.removals.increment();
+            case EVICTED -> this.evictions.increment();
+            case EXPIRED -> this.expirations.increment();
+        }
+    }
+
+    public void recordHits(long count) {
+        this.hits.add(count);
+    }
+
+    public void recordMisses(long count) {
+        this.misses.add(count);
+    }
+
+    public boolean isAccessSampled() {
+        FintCacheHotKeyTracker<K> hotKeyTracker = this.hotKeyTracker;
+        return hotKeyTracker != null && hotKeyTracker.isSampled();
+    }
+
+    public void recordSampledAccess(K key) {
+        FintCacheHotKeyTracker<K> hotKeyTracker = this.hotKeyTracker;
+        if (hotKeyTracker != null) {
+            hotKeyTracker.record(key);
+        }
+    }
+
+    public long startOperation() {
+        return this.operationTimers.isEmpty() ? 0 : System.nanoTime();
+    }
+
+    public void endOperation(Operation operation, long startNanos) {
+        Timer timer = this.operationTimers.get(operation);
+        if (timer != null && startNanos != 0) {
+            timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void bindOperationTimers(Map<Operation, Timer> operationTimers) {
+        this.operationTimers = new EnumMap<>(operationTimers);
+    }
+
+    public void trackHotKeys(FintCacheHotKeyTracker<K> hotKeyTracker) {
+        this.hotKeyTracker = hotKeyTracker;
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    public long getPuts() {
+        return this.puts.sum();
+    }
+
+    public long getRemovals() {
+        return this.removals.sum();
+    }
+
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    public long getExpirations() {
+        return this.expirations.sum();
+    }
+
+}
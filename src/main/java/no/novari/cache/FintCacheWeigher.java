@@ -0,0 +1,7 @@
+package no.novari.cache;
+
+public interface FintCacheWeigher<K, V> {
+
+    long weigh(K key, V value);
+
+}
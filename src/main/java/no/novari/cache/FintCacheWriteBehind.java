@@ -0,0 +1,193 @@
+package no.novari.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+public class FintCacheWriteBehind<K, V> implements FintCacheEventListener<K, V> {
+
+    private static final int defaultBatchSize = 100;
+    private static final Duration defaultMaxWriteDelay = Duration.ofSeconds(1);
+    private static final Duration defaultMaxRetryDelay = Duration.ofMinutes(1);
+
+    private record PendingWrite<V>(V value) {
+    }
+
+    private final String alias;
+    private final FintCacheWriter<K, V> writer;
+    private final int batchSize;
+    private final Duration maxWriteDelay;
+    private final long maxRetryDelayNanos;
+    private final Executor executor;
+    private final ConcurrentMap<K, PendingWrite<V>> pendingWrites;
+    private final AtomicBoolean flushRequested;
+    private final ReentrantLock flushLock;
+    private final LongAdder writtenEntries;
+    private final LongAdder flushedBatches;
+    private final LongAdder failedBatches;
+    private int consecutiveFailures;
+    private volatile long retryAt;
+
+    @SuppressWarnings("unchecked")
+    public FintCacheWriteBehind(String alias, FintCacheWriteBehindOptions writeBehindOptions) {
+        if (writeBehindOptions.writer == null) {
+            throw new IllegalArgumentException("Write-behind requires a writer");
+        }
+        this.batchSize = writeBehindOptions.batchSize != null ? writeBehindOptions.batchSize : defaultBatchSize;
+        if (this.batchSize < 1) {
+            throw new IllegalArgumentException("Write-behind batch size must be at least 1");
+        }
+        this.alias = alias;
+        this.writer = (FintCacheWriter<K, V>) writeBehindOptions.writer;
+        this.maxWriteDelay = writeBehindOptions.maxWriteDelay != null ? writeBehindOptions.maxWriteDelay : defaultMaxWriteDelay;
+        this.maxRetryDelayNanos = FintCacheExpiry.toNanos(
+                writeBehindOptions.maxRetryDelay != null ? writeBehindOptions.maxRetryDelay : defaultMaxRetryDelay
+        );
+        this.executor = writeBehindOptions.executor != null ? writeBehindOptions.executor : FintCacheExecutors.defaultExecutor;
+        this.pendingWrites = new ConcurrentHashMap<>();
+        this.flushRequested = new AtomicBoolean();
+        this.flushLock = new ReentrantLock();
+        this.writtenEntries = new LongAdder();
+        this.flushedBatches = new LongAdder();
+        this.failedBatches = new LongAdder();
+    }
+
+    @Override
+    public void onEvent(FintCacheEvent<K, V> event) {
+        switch (event.getType()) {
+            case CREATED, UPDATED -> this.pendingWrites.put(event.getKey(), new PendingWrite<>(event.getNewValue()));
+            case REMOVED -> {
+                if (event.isInvalidation()) {
+                    return;
+                }
+                this.pendingWrites.put(event.getKey(), new PendingWrite<>(null));
+            }
+            case EXPIRED, EVICTED -> {
+                return;
+            }
+        }
+        if (this.pendingWrites.size() >= this.batchSize && this.flushRequested.compareAndSet(false, true)) {
+            try {
+                this.executor.execute(() -> {
+                    try {
+                        this.flushIfDue();
+                    } finally {
+                        this.flushRequested.set(false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                this.flushRequested.set(false);
+            }
+        }
+    }
+
+    // Scheduled and size triggered flushes wait out the retry delay after a failed batch
+    void flushIfDue() {
+        if (this.retryAt == 0 || System.nanoTime() - this.retryAt >= 0) {
+            this.flush();
+        }
+    }
+
+    public void flush() {
+        this.flushLock.lock();
+        try {
+            while (!this.pendingWrites.isEmpty()) {
+                Map<K, V> writes = new HashMap<>();
+                Set<K> deletes = new HashSet<>();
+                Iterator<K> pendingKeys = this.pendingWrites.keySet().iterator();
+                while (pendingKeys.hasNext() && writes.size() + deletes.size() < this.batchSize) {
+                    K key = pendingKeys.next();
+                    PendingWrite<V> pendingWrite = this.pendingWrites.remove(key);
+                    if (pendingWrite == null) {
+                        continue;
+                    }
+                    if (pendingWrite.value() != null) {
+                        writes.put(key, pendingWrite.value());
+                    } else {
+                        deletes.add(key);
+                    }
+                }
+                if (!this.writeBatch(writes, deletes)) {
+                    return;
+                }
+            }
+        } finally {
+            this.flushLock.unlock();
+        }
+    }
+
+    private boolean writeBatch(Map<K, V> writes, Set<K> deletes) {
+        if (!writes.isEmpty()) {
+            try {
+                this.writer.writeAll(writes);
+            } catch (RuntimeException e) {
+                log.warn("Write-behind of {} entries from cache '{}' failed", writes.size(), this.alias, e);
+                this.onBatchFailed(writes, deletes);
+                return false;
+            }
+            this.writtenEntries.add(writes.size());
+        }
+        if (!deletes.isEmpty()) {
+            try {
+                this.writer.deleteAll(deletes);
+            } catch (RuntimeException e) {
+                log.warn("Write-behind of {} removals from cache '{}' failed", deletes.size(), this.alias, e);
+                this.onBatchFailed(Map.of(), deletes);
+                return false;
+            }
+            this.writtenEntries.add(deletes.size());
+        }
+        this.flushedBatches.increment();
+        this.consecutiveFailures = 0;
+        this.retryAt = 0;
+        return true;
+    }
+
+    // Only the part of the batch that was not written is queued again, and retries back off exponentially
+    private void onBatchFailed(Map<K, V> writes, Set<K> deletes) {
+        this.failedBatches.increment();
+        // Newer writes of the same key take precedence over the failed batch
+        writes.forEach((key, value) -> this.pendingWrites.putIfAbsent(key, new PendingWrite<>(value)));
+        deletes.forEach(key -> this.pendingWrites.putIfAbsent(key, new PendingWrite<>(null)));
+        this.consecutiveFailures++;
+        long retryDelayNanos = Math.min(
+                this.maxRetryDelayNanos,
+                FintCacheExpiry.toNanos(this.maxWriteDelay.multipliedBy(1L << Math.min(this.consecutiveFailures - 1, 20)))
+        );
+        this.retryAt = System.nanoTime() + Math.max(1, retryDelayNanos);
+    }
+
+    public Duration getMaxWriteDelay() {
+        return this.maxWriteDelay;
+    }
+
+    public long getQueueSize() {
+        return this.pendingWrites.size();
+    }
+
+    public long getWrittenEntries() {
+        return this.writtenEntries.sum();
+    }
+
+    public long getFlushedBatches() {
+        return this.flushedBatches.sum();
+    }
+
+    public long getFailedBatches() {
+        return this.failedBatches.sum();
+    }
+
+}
@@ -0,0 +1,17 @@
+package no.novari.cache;
+
+import lombok.Builder;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+@Builder
+public class FintCacheWriteBehindOptions {
+
+    public final FintCacheWriter<?, ?> writer;
+    public final Integer batchSize;
+    public final Duration maxWriteDelay;
+    public final Duration maxRetryDelay;
+    public final Executor executor;
+
+}
@@ -0,0 +1,12 @@
+package no.novari.cache;
+
+import java.util.Map;
+import java.util.Set;
+
+public interface FintCacheWriter<K, V> {
+
+    void writeAll(Map<K, V> entries);
+
+    void deleteAll(Set<K> keys);
+
+}
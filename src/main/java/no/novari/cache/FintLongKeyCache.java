@@ -0,0 +1,517 @@
+package no.novari.cache;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import no.novari.cache.exceptions.NoSuchCacheEntryException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+public class FintLongKeyCache<V> implements FintCache<Long, V> {
+
+    private record Registration<V>(
+            FintCacheEventListener<Long, V> listener,
+            FintCacheEventListener<Long, V> deliveringListener,
+            Set<FintCacheEvent.EventType> eventTypes,
+            boolean ordered
+    ) {
+    }
+
+    @Getter
+    private final String alias;
+    @Getter
+    private final Class<V> valueClass;
+    private final FintLongKeyStore<V> store;
+    private final long timeToLiveNanos;
+    private final FintCacheStatistics<Long, V> statistics;
+    private final FintLongKeyStore.EntryEventSink<V> statisticsSink;
+    private final FintCacheSingleFlightLoader<Long, V> singleFlightLoader;
+    private final List<Registration<V>> registrations;
+    private volatile FintCacheEventLogger<Long, V> eventLogger;
+    private final FintCacheBatchEventListeners<Long, V> batchEventListeners;
+
+    public FintLongKeyCache(
+            String alias,
+            Class<V> valueClass,
+            long maxEntries,
+            Duration timeToLive,
+            FintCacheStatistics<Long, V> statistics
+    ) {
+        this.alias = alias;
+        this.valueClass = valueClass;
+        this.store = new FintLongKeyStore<>(maxEntries);
+        this.timeToLiveNanos = FintCacheExpiry.toNanos(timeToLive);
+        this.statistics = statistics;
+        this.statisticsSink = (type, key, oldValue, newValue) -> {
+            statistics.recordEvent(type);
+            FintCacheEventLogger<Long, V> logger = this.eventLogger;
+            if (logger != null && logger.shouldLog(type)) {
+                logger.log(type, key, oldValue, newValue);
+            }
+        };
+        this.singleFlightLoader = new FintCacheSingleFlightLoader<>();
+        this.batchEventListeners = new FintCacheBatchEventListeners<>();
+        this.registrations = new CopyOnWriteArrayList<>();
+    }
+
+    public boolean containsKey(long key) {
+        return this.getIfPresent(key) != null;
+    }
+
+    public V get(long key) {
+        return this.getOptional(key).orElseThrow(() -> new NoSuchCacheEntryException(String.valueOf(key)));
+    }
+
+    public Optional<V> getOptional(long key) {
+        long start = this.statistics.startOperation();
+        if (this.statistics.isAccessSampled()) {
+            this.statistics.recordSampledAccess(key);
+        }
+        V value = this.getIfPresent(key);
+        if (value != null) {
+            this.statistics.recordHits(1);
+        } else {
+            this.statistics.recordMisses(1);
+        }
+        this.statistics.endOperation(FintCacheStatistics.Operation.GET, start);
+        return Optional.ofNullable(value);
+    }
+
+    private V getIfPresent(long key) {
+        FintLongKeyStore.EntryEventSink<V> events = this.createEventSink();
+        V value = this.store.get(key, System.nanoTime(), events);
+        this.fire(events);
+        return value;
+    }
+
+    public List<V> get(long[] keys) {
+        long start = this.statistics.startOperation();
+        FintLongKeyStore.EntryEventSink<V> events = this.createEventSink();
+        long now = System.nanoTime();
+        List<V> values = new ArrayList<>(keys.length);
+        for (long key : keys) {
+            V value = this.store.get(key, now, events);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        this.fire(events);
+        this.statistics.recordHits(values.size());
+        this.statistics.recordMisses(keys.length - values.size());
+        this.statistics.endOperation(FintCacheStatistics.Operation.GET_BULK, start);
+        return values;
+    }
+
+    public void put(long key, V value) {
+        long start = this.statistics.startOperation();
+        this.putEntry(key, value, this.timeToLiveNanos);
+        this.statistics.endOperation(FintCacheStatistics.Operation.PUT, start);
+    }
+
+    public void put(long key, V value, Duration timeToLive) {
+        if (timeToLive.isNegative() || timeToLive.isZero()) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        long start = this.statistics.startOperation();
+        this.putEntry(key, value, FintCacheExpiry.toNanos(timeToLive));
+        this.statistics.endOperation(FintCacheStatistics.Operation.PUT, start);
+    }
+
+    private void putEntry(long key, V value, long timeToLiveNanos) {
+        Objects.requireNonNull(value);
+        if (this.statistics.isAccessSampled()) {
+            this.statistics.recordSampledAccess(key);
+        }
+        FintLongKeyStore.EntryEventSink<V> events = this.createEventSink();
+        this.store.put(key, value, timeToLiveNanos, System.nanoTime(), events);
+        this.fire(events);
+    }
+
+    public void put(long[] keys, V value) {
+        Objects.requireNonNull(value);
+        long start = this.statistics.startOperation();
+        FintLongKeyStore.EntryEventSink<V> events = this.createEventSink();
+        long now = System.nanoTime();
+        for (long key : keys) {
+            this.store.put(key, value, this.timeToLiveNanos, now, events);
+        }
+        this.fire(events);
+        this.statistics.endOperation(FintCacheStatistics.Operation.PUT_BULK, start);
+    }
+
+    public void put(long[] keys, List<? extends V> values) {
+        if (keys.length != values.size()) {
+            throw new IllegalArgumentException("Number of keys and values must be equal");
+        }
+        values.forEach(Objects::requireNonNull);
+        long start = this.statistics.startOperation();
+        FintLongKeyStore.EntryEventSink<V> events = this.createEventSink();
+        long now = System.nanoTime();
+        for (int i = 0; i < keys.length; i++) {
+            this.store.put(keys[i], values.get(i), this.timeToLiveNanos, now, events);
+        }
+        this.fire(events);
+        this.statistics.endOperation(FintCacheStatistics.Operation.PUT_BULK, start);
+    }
+
+    public V putIfAbsent(long key, V value) {
+        Objects.requireNonNull(value);
+        long start = this.statistics.startOperation();
+        FintLongKeyStore.EntryEventSink<V> events = this.createEventSink();
+        V existingValue = this.store.putIfAbsent(key, value, this.timeToLiveNanos, System.nanoTime(), events);
+        this.fire(events);
+        this.statistics.endOperation(FintCacheStatistics.Operation.PUT_IF_ABSENT, start);
+        return existingValue;
+    }
+
+    public boolean replace(long key, V oldValue, V newValue) {
+        Objects.requireNonNull(oldValue);
+        Objects.requireNonNull(newValue);
+        long start = this.statistics.startOperation();
+        FintLongKeyStore.EntryEventSink<V> events = this.createEventSink();
+        boolean replaced = this.store.replace(key, oldValue, newValue, this.timeToLiveNanos, System.nanoTime(), events);
+        this.fire(events);
+        this.statistics.endOperation(FintCacheStatistics.Operation.REPLACE, start);
+        return replaced;
+    }
+
+    public V compute(long key, Function<? super V, ? extends V> remappingFunction) {
+        long start = this.statistics.startOperation();
+        V newValue = this.computeEntry(key, remappingFunction);
+        this.statistics.endOperation(FintCacheStatistics.Operation.COMPUTE, start);
+        return newValue;
+    }
+
+    public V merge(long key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value);
+        long start = this.statistics.startOperation();
+        V newValue = this.computeEntry(key, oldValue -> oldValue == null ? value : remappingFunction.apply(oldValue, value));
+        this.statistics.endOperation(FintCacheStatistics.Operation.MERGE, start);
+        return newValue;
+    }
+
+    private V computeEntry(long key, Function<? super V, ? extends V> remappingFunction) {
+        FintLongKeyStore.EntryEventSink<V> events = this.createEventSink();
+        V newValue = this.store.compute(key, remappingFunction, this.timeToLiveNanos, System.nanoTime(), events);
+        this.fire(events);
+        return newValue;
+    }
+
+    public void remove(long key) {
+        long start = this.statistics.startOperation();
+        FintLongKeyStore.EntryEventSink<V> events = this.createEventSink();
+        this.store.remove(key, System.nanoTime(), events);
+        this.fire(events);
+        this.statistics.endOperation(FintCacheStatistics.Operation.REMOVE, start);
+    }
+
+    public void remove(long[] keys) {
+        long start = this.statistics.startOperation();
+        FintLongKeyStore.EntryEventSink<V> events = this.createEventSink();
+        long now = System.nanoTime();
+        for (long key : keys) {
+            this.store.remove(key, now, events);
+        }
+        this.fire(events);
+        this.statistics.endOperation(FintCacheStatistics.Operation.REMOVE_BULK, start);
+    }
+
+    @Override
+    public boolean containsKey(Long key) {
+        return this.containsKey(key.longValue());
+    }
+
+    @Override
+    public Optional<V> getOptional(Long key) {
+        return this.getOptional(key.longValue());
+    }
+
+    @Override
+    public List<V> get(Collection<Long> keys) {
+        return new ArrayList<>(this.getAllPresent(keys).values());
+    }
+
+    @Override
+    public Map<Long, V> getAllPresent(Collection<Long> keys) {
+        long start = this.statistics.startOperation();
+        Set<Long> uniqueKeys = keys instanceof Set<Long> keySet ? keySet : new LinkedHashSet<>(keys);
+        FintLongKeyStore.EntryEventSink<V> events = this.createEventSink();
+        long now = System.nanoTime();
+        Map<Long, V> hits = new LinkedHashMap<>(Math.max(16, (int) (uniqueKeys.size() / 0.75f) + 1));
+        for (Long key : uniqueKeys) {
+            V value = this.store.get(key, now, events);
+            if (value != null) {
+                hits.put(key, value);
+            }
+        }
+        this.fire(events);
+        this.statistics.recordHits(hits.size());
+        this.statistics.recordMisses(uniqueKeys.size() - hits.size());
+        this.statistics.endOperation(FintCacheStatistics.Operation.GET_BULK, start);
+        return hits;
+    }
+
+    @Override
+    public V getOrLoad(Long key, Function<? super Long, ? extends V> loader) {
+        return this.singleFlightLoader.getOrLoad(this, key, loader);
+    }
+
+    @Override
+    public Map<Long, V> getAllOrLoad(
+            Collection<Long> keys,
+            Function<? super Set<Long>, ? extends Map<? extends Long, ? extends V>> loader
+    ) {
+        return this.singleFlightLoader.getAllOrLoad(this, keys, loader);
+    }
+
+    @Override
+    public List<V> getAll() {
+        return this.stream().map(Map.Entry::getValue).collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<Map.Entry<Long, V>> stream() {
+        return this.store.entries(System.nanoTime()).stream();
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super Long, ? super V> action) {
+        this.store.entries(System.nanoTime()).forEach(entry -> action.accept(entry.getKey(), entry.getValue()));
+    }
+
+    @Override
+    public void put(Long key, V value) {
+        this.put(key.longValue(), value);
+    }
+
+    @Override
+    public void put(Long key, V value, Duration timeToLive) {
+        this.put(key.longValue(), value, timeToLive);
+    }
+
+    @Override
+    public void put(Map<? extends Long, ? extends V> entries) {
+        this.putEntries(entries, this.createEventSink());
+    }
+
+    @Override
+    public void putLoaded(Map<? extends Long, ? extends V> entries) {
+        this.putEntries(
+                entries,
+                this.registrations.isEmpty()
+                        ? this.statisticsSink
+                        : new EventBuffer<>(this.statisticsSink, this.registrations, false, true)
+        );
+    }
+
+    private void putEntries(Map<? extends Long, ? extends V> entries, FintLongKeyStore.EntryEventSink<V> events) {
+        entries.values().forEach(Objects::requireNonNull);
+        long start = this.statistics.startOperation();
+        long now = System.nanoTime();
+        entries.forEach((key, value) -> this.store.put(key, value, this.timeToLiveNanos, now, events));
+        this.fire(events);
+        this.statistics.endOperation(FintCacheStatistics.Operation.PUT_BULK, start);
+    }
+
+    @Override
+    public V putIfAbsent(Long key, V value) {
+        return this.putIfAbsent(key.longValue(), value);
+    }
+
+    @Override
+    public boolean replace(Long key, V oldValue, V newValue) {
+        return this.replace(key.longValue(), oldValue, newValue);
+    }
+
+    @Override
+    public V compute(Long key, BiFunction<? super Long, ? super V, ? extends V> remappingFunction) {
+        return this.compute(key.longValue(), oldValue -> remappingFunction.apply(key, oldValue));
+    }
+
+    @Override
+    public V merge(Long key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        return this.merge(key.longValue(), value, remappingFunction);
+    }
+
+    @Override
+    public void remove(Long key) {
+        this.remove(key.longValue());
+    }
+
+    @Override
+    public void remove(Collection<Long> keys) {
+        this.remove(keys.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    @Override
+    public void invalidate(Collection<Long> keys) {
+        FintLongKeyStore.EntryEventSink<V> events = this.registrations.isEmpty()
+                ? this.statisticsSink
+                : new EventBuffer<>(this.statisticsSink, this.registrations, true, false);
+        long now = System.nanoTime();
+        for (Long key : keys) {
+            this.store.remove(key, now, events);
+        }
+        this.fire(events);
+    }
+
+    @Override
+    public void clear() {
+        this.store.clear();
+    }
+
+    @Override
+    public long getNumberOfEntries() {
+        return this.store.size();
+    }
+
+    @Override
+    public void addEventListener(FintCacheEventListener<Long, V> listener) {
+        this.addEventListener(listener, FintCacheEventListenerOptions.builder().build());
+    }
+
+    @Override
+    public void addEventListener(FintCacheEventListener<Long, V> listener, FintCacheEventListenerOptions listenerOptions) {
+        if (this.eventLogger == listener
+                || this.registrations.stream().anyMatch(registration -> registration.listener() == listener)) {
+            throw new IllegalStateException("Event listener is already registered");
+        }
+        // The event logger is called from the statistics sink, so logging does not disable the no-boxing path
+        if (listener instanceof FintCacheEventLogger<Long, V> logger
+                && this.eventLogger == null
+                && !Boolean.TRUE.equals(listenerOptions.asynchronous)
+                && listenerOptions.eventTypes == null) {
+            this.eventLogger = logger;
+            return;
+        }
+        boolean ordered = listenerOptions.ordered == null || listenerOptions.ordered;
+        this.registrations.add(new Registration<>(
+                listener,
+                Boolean.TRUE.equals(listenerOptions.asynchronous)
+                        ? new FintCacheAsyncEventListener<>(
+                        listener,
+                        listenerOptions.executor != null ? listenerOptions.executor : FintCacheExecutors.defaultExecutor,
+                        ordered
+                )
+                        : listener,
+                listenerOptions.eventTypes != null
+                        ? Set.copyOf(listenerOptions.eventTypes)
+                        : EnumSet.allOf(FintCacheEvent.EventType.class),
+                ordered
+        ));
+    }
+
+    @Override
+    public void removeEventListener(FintCacheEventListener<Long, V> listener) {
+        if (this.eventLogger == listener) {
+            this.eventLogger = null;
+        }
+        this.registrations.removeIf(registration -> registration.listener() == listener);
+    }
+
+    // Statistics are recorded from primitive keys, and events are only created when someone listens
+    private FintLongKeyStore.EntryEventSink<V> createEventSink() {
+        return this.registrations.isEmpty()
+                ? this.statisticsSink
+                : new EventBuffer<>(this.statisticsSink, this.registrations, false, false);
+    }
+
+    // Ordered listeners already got the events from within the store's lock
+    private void fire(FintLongKeyStore.EntryEventSink<V> events) {
+        if (!(events instanceof EventBuffer<V> eventBuffer)) {
+            return;
+        }
+        for (FintCacheEvent<Long, V> event : eventBuffer.events) {
+            fire(this.registrations, event, false);
+        }
+    }
+
+    private static <V> void fire(List<Registration<V>> registrations, FintCacheEvent<Long, V> event, boolean ordered) {
+        for (Registration<V> registration : registrations) {
+            if (registration.ordered() == ordered && registration.eventTypes().contains(event.getType())) {
+                try {
+                    registration.deliveringListener().onEvent(event);
+                } catch (RuntimeException e) {
+                    log.error("Cache event listener failed to handle {} event", event.getType(), e);
+                }
+            }
+        }
+    }
+
+    private static final class EventBuffer<V> implements FintLongKeyStore.EntryEventSink<V> {
+
+        private final FintLongKeyStore.EntryEventSink<V> recorder;
+        private final List<Registration<V>> registrations;
+        private final boolean invalidation;
+        private final boolean loaded;
+        private final List<FintCacheEvent<Long, V>> events = new ArrayList<>(2);
+
+        private EventBuffer(
+                FintLongKeyStore.EntryEventSink<V> recorder,
+                List<Registration<V>> registrations,
+                boolean invalidation,
+                boolean loaded
+        ) {
+            this.recorder = recorder;
+            this.registrations = registrations;
+            this.invalidation = invalidation;
+            this.loaded = loaded;
+        }
+
+        // Called while the store holds the segment lock of the key, so ordered listeners see a key's events in the order they were applied
+        @Override
+        public void onEntryEvent(FintCacheEvent.EventType type, long key, V oldValue, V newValue) {
+            this.recorder.onEntryEvent(type, key, oldValue, newValue);
+            FintCacheEvent<Long, V> event = new FintCacheEvent<>(
+                    type,
+                    key,
+                    oldValue,
+                    newValue,
+                    this.invalidation && type == FintCacheEvent.EventType.REMOVED,
+                    this.loaded && (type == FintCacheEvent.EventType.CREATED || type == FintCacheEvent.EventType.UPDATED)
+            );
+            fire(this.registrations, event, true);
+            this.events.add(event);
+        }
+
+    }
+
+    @Override
+    public void addBatchEventListener(
+            FintCacheBatchEventListener<Long, V> listener,
+            FintCacheBatchEventListenerOptions listenerOptions
+    ) {
+        this.batchEventListeners.add(this, listener, listenerOptions);
+    }
+
+    @Override
+    public void removeBatchEventListener(FintCacheBatchEventListener<Long, V> listener) {
+        this.batchEventListeners.remove(this, listener);
+    }
+
+    void removeBatchEventListeners() {
+        this.batchEventListeners.removeAll(this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FintLongKeyCache{alias='%s', entries=%d}", this.getAlias(), this.getNumberOfEntries());
+    }
+
+}
@@ -0,0 +1,387 @@
+package no.novari.cache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+class FintLongKeyStore<V> {
+
+    private static final int maxSegments = 16;
+    private static final int minSegmentCapacity = 16;
+    private static final int evictionSampleSize = 8;
+
+    interface EntryEventSink<V> {
+
+        void onEntryEvent(FintCacheEvent.EventType type, long key, V oldValue, V newValue);
+
+    }
+
+    private final Segment<V>[] segments;
+    private final int segmentShift;
+
+    @SuppressWarnings("unchecked")
+    FintLongKeyStore(long maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("A long key cache must hold at least one entry");
+        }
+        // Small caches use a single segment so that the size bound is exact
+        int numberOfSegments = maxEntries < 1024 ? 1 : maxSegments;
+        long maxEntriesPerSegment = (maxEntries + numberOfSegments - 1) / numberOfSegments;
+        this.segments = new Segment[numberOfSegments];
+        for (int i = 0; i < numberOfSegments; i++) {
+            this.segments[i] = new Segment<>(maxEntriesPerSegment);
+        }
+        this.segmentShift = Long.SIZE - Integer.numberOfTrailingZeros(numberOfSegments);
+    }
+
+    private static long spread(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 32);
+    }
+
+    private Segment<V> segmentFor(long hash) {
+        return this.segments.length == 1 ? this.segments[0] : this.segments[(int) (hash >>> this.segmentShift)];
+    }
+
+    V get(long key, long now, EntryEventSink<V> events) {
+        long hash = spread(key);
+        return this.segmentFor(hash).get(key, hash, now, events);
+    }
+
+    void put(long key, V value, long timeToLiveNanos, long now, EntryEventSink<V> events) {
+        long hash = spread(key);
+        this.segmentFor(hash).put(key, hash, value, timeToLiveNanos, now, events);
+    }
+
+    V putIfAbsent(long key, V value, long timeToLiveNanos, long now, EntryEventSink<V> events) {
+        long hash = spread(key);
+        return this.segmentFor(hash).putIfAbsent(key, hash, value, timeToLiveNanos, now, events);
+    }
+
+    boolean replace(long key, V oldValue, V newValue, long timeToLiveNanos, long now, EntryEventSink<V> events) {
+        long hash = spread(key);
+        return this.segmentFor(hash).replace(key, hash, oldValue, newValue, timeToLiveNanos, now, events);
+    }
+
+    V compute(
+            long key,
+            Function<? super V, ? extends V> remappingFunction,
+            long timeToLiveNanos,
+            long now,
+            EntryEventSink<V> events
+    ) {
+        long hash = spread(key);
+        return this.segmentFor(hash).compute(key, hash, remappingFunction, timeToLiveNanos, now, events);
+    }
+
+    V remove(long key, long now, EntryEventSink<V> events) {
+        long hash = spread(key);
+        return this.segmentFor(hash).remove(key, hash, now, events);
+    }
+
+    void clear() {
+        for (Segment<V> segment : this.segments) {
+            segment.clear();
+        }
+    }
+
+    long size() {
+        long size = 0;
+        for (Segment<V> segment : this.segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    List<Map.Entry<Long, V>> entries(long now) {
+        List<Map.Entry<Long, V>> entries = new ArrayList<>();
+        for (Segment<V> segment : this.segments) {
+            segment.collectEntries(now, entries);
+        }
+        return entries;
+    }
+
+    // Linear probing table where an empty slot is marked by a null value
+    private static final class Segment<V> extends ReentrantLock {
+
+        private final long maxEntries;
+        private long[] keys;
+        private Object[] values;
+        private long[] expiresAt;
+        private volatile int size;
+
+        private Segment(long maxEntries) {
+            this.maxEntries = maxEntries;
+            this.allocate(minSegmentCapacity);
+        }
+
+        private void allocate(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+            this.expiresAt = new long[capacity];
+        }
+
+        private int find(long key, long hash) {
+            int mask = this.keys.length - 1;
+            for (int slot = (int) hash & mask; this.values[slot] != null; slot = (slot + 1) & mask) {
+                if (this.keys[slot] == key) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private boolean isExpired(int slot, long now) {
+            return now - this.expiresAt[slot] >= 0;
+        }
+
+        @SuppressWarnings("unchecked")
+        private V valueAt(int slot) {
+            return (V) this.values[slot];
+        }
+
+        private V get(long key, long hash, long now, EntryEventSink<V> events) {
+            this.lock();
+            try {
+                int slot = this.findLive(key, hash, now, events);
+                return slot >= 0 ? this.valueAt(slot) : null;
+            } finally {
+                this.unlock();
+            }
+        }
+
+        // Removes the entry if it has expired, so that callers only see live slots
+        private int findLive(long key, long hash, long now, EntryEventSink<V> events) {
+            int slot = this.find(key, hash);
+            if (slot >= 0 && this.isExpired(slot, now)) {
+                this.removeAt(slot, FintCacheEvent.EventType.EXPIRED, events);
+                return -1;
+            }
+            return slot;
+        }
+
+        private void put(long key, long hash, V value, long timeToLiveNanos, long now, EntryEventSink<V> events) {
+            this.lock();
+            try {
+                int slot = this.find(key, hash);
+                if (slot >= 0) {
+                    V oldValue = this.valueAt(slot);
+                    boolean expired = this.isExpired(slot, now);
+                    this.values[slot] = value;
+                    this.expiresAt[slot] = now + timeToLiveNanos;
+                    if (expired) {
+                        events.onEntryEvent(FintCacheEvent.EventType.EXPIRED, key, oldValue, null);
+                        events.onEntryEvent(FintCacheEvent.EventType.CREATED, key, null, value);
+                    } else {
+                        events.onEntryEvent(FintCacheEvent.EventType.UPDATED, key, oldValue, value);
+                    }
+                    return;
+                }
+                this.insertEntry(key, hash, value, timeToLiveNanos, now, events);
+            } finally {
+                this.unlock();
+            }
+        }
+
+        private V putIfAbsent(long key, long hash, V value, long timeToLiveNanos, long now, EntryEventSink<V> events) {
+            this.lock();
+            try {
+                int slot = this.findLive(key, hash, now, events);
+                if (slot >= 0) {
+                    return this.valueAt(slot);
+                }
+                this.insertEntry(key, hash, value, timeToLiveNanos, now, events);
+                return null;
+            } finally {
+                this.unlock();
+            }
+        }
+
+        private boolean replace(
+                long key,
+                long hash,
+                V oldValue,
+                V newValue,
+                long timeToLiveNanos,
+                long now,
+                EntryEventSink<V> events
+        ) {
+            this.lock();
+            try {
+                int slot = this.findLive(key, hash, now, events);
+                if (slot < 0 || !this.values[slot].equals(oldValue)) {
+                    return false;
+                }
+                this.updateAt(slot, newValue, timeToLiveNanos, now, events);
+                return true;
+            } finally {
+                this.unlock();
+            }
+        }
+
+        private V compute(
+                long key,
+                long hash,
+                Function<? super V, ? extends V> remappingFunction,
+                long timeToLiveNanos,
+                long now,
+                EntryEventSink<V> events
+        ) {
+            this.lock();
+            try {
+                int slot = this.findLive(key, hash, now, events);
+                V newValue = remappingFunction.apply(slot >= 0 ? this.valueAt(slot) : null);
+                if (slot >= 0 && newValue == null) {
+                    this.removeAt(slot, FintCacheEvent.EventType.REMOVED, events);
+                } else if (slot >= 0) {
+                    this.updateAt(slot, newValue, timeToLiveNanos, now, events);
+                } else if (newValue != null) {
+                    this.insertEntry(key, hash, newValue, timeToLiveNanos, now, events);
+                }
+                return newValue;
+            } finally {
+                this.unlock();
+            }
+        }
+
+        private void updateAt(int slot, V value, long timeToLiveNanos, long now, EntryEventSink<V> events) {
+            V oldValue = this.valueAt(slot);
+            this.values[slot] = value;
+            this.expiresAt[slot] = now + timeToLiveNanos;
+            events.onEntryEvent(FintCacheEvent.EventType.UPDATED, this.keys[slot], oldValue, value);
+        }
+
+        private void insertEntry(long key, long hash, V value, long timeToLiveNanos, long now, EntryEventSink<V> events) {
+            if ((this.size + 1) * 4L > this.keys.length * 3L) {
+                this.resize(this.keys.length * 2);
+            }
+            this.insert(key, hash, value, now + timeToLiveNanos);
+            events.onEntryEvent(FintCacheEvent.EventType.CREATED, key, null, value);
+            if (this.size > this.maxEntries) {
+                this.evict(key, now, events);
+            }
+        }
+
+        private V remove(long key, long hash, long now, EntryEventSink<V> events) {
+            this.lock();
+            try {
+                int slot = this.find(key, hash);
+                if (slot < 0) {
+                    return null;
+                }
+                boolean expired = this.isExpired(slot, now);
+                V oldValue = this.removeAt(
+                        slot,
+                        expired ? FintCacheEvent.EventType.EXPIRED : FintCacheEvent.EventType.REMOVED,
+                        events
+                );
+                return expired ? null : oldValue;
+            } finally {
+                this.unlock();
+            }
+        }
+
+        private int insert(long key, long hash, Object value, long expiresAt) {
+            int mask = this.keys.length - 1;
+            int slot = (int) hash & mask;
+            while (this.values[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            this.keys[slot] = key;
+            this.values[slot] = value;
+            this.expiresAt[slot] = expiresAt;
+            this.size++;
+            return slot;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = this.keys;
+            Object[] oldValues = this.values;
+            long[] oldExpiresAt = this.expiresAt;
+            this.allocate(capacity);
+            this.size = 0;
+            for (int slot = 0; slot < oldKeys.length; slot++) {
+                if (oldValues[slot] != null) {
+                    this.insert(oldKeys[slot], spread(oldKeys[slot]), oldValues[slot], oldExpiresAt[slot]);
+                }
+            }
+        }
+
+        // Samples a few occupied slots and evicts the one closest to expiry, preferring entries that have already expired
+        private void evict(long protectedKey, long now, EntryEventSink<V> events) {
+            int mask = this.keys.length - 1;
+            int victim = -1;
+            int sampled = 0;
+            int slot = ThreadLocalRandom.current().nextInt(this.keys.length);
+            for (int probed = 0; probed < this.keys.length && sampled < evictionSampleSize; probed++, slot = (slot + 1) & mask) {
+                if (this.values[slot] == null || this.keys[slot] == protectedKey) {
+                    continue;
+                }
+                sampled++;
+                if (victim < 0 || this.expiresAt[slot] - this.expiresAt[victim] < 0) {
+                    victim = slot;
+                }
+            }
+            if (victim >= 0) {
+                this.removeAt(
+                        victim,
+                        this.isExpired(victim, now) ? FintCacheEvent.EventType.EXPIRED : FintCacheEvent.EventType.EVICTED,
+                        events
+                );
+            }
+        }
+
+        // Backward shift deletion keeps probe sequences intact without tombstones
+        private V removeAt(int slot, FintCacheEvent.EventType eventType, EntryEventSink<V> events) {
+            long key = this.keys[slot];
+            V oldValue = this.valueAt(slot);
+            int mask = this.keys.length - 1;
+            int hole = slot;
+            this.values[hole] = null;
+            for (int next = (hole + 1) & mask; this.values[next] != null; next = (next + 1) & mask) {
+                int home = (int) spread(this.keys[next]) & mask;
+                boolean homeBetweenHoleAndNext = hole <= next
+                        ? hole < home && home <= next
+                        : hole < home || home <= next;
+                if (!homeBetweenHoleAndNext) {
+                    this.keys[hole] = this.keys[next];
+                    this.values[hole] = this.values[next];
+                    this.expiresAt[hole] = this.expiresAt[next];
+                    this.values[next] = null;
+                    hole = next;
+                }
+            }
+            this.size--;
+            events.onEntryEvent(eventType, key, oldValue, null);
+            return oldValue;
+        }
+
+        private void clear() {
+            this.lock();
+            try {
+                this.allocate(minSegmentCapacity);
+                this.size = 0;
+            } finally {
+                this.unlock();
+            }
+        }
+
+        private void collectEntries(long now, List<Map.Entry<Long, V>> entries) {
+            this.lock();
+            try {
+                for (int slot = 0; slot < this.keys.length; slot++) {
+                    if (this.values[slot] != null && !this.isExpired(slot, now)) {
+                        entries.add(Map.entry(this.keys[slot], this.valueAt(slot)));
+                    }
+                }
+            } finally {
+                this.unlock();
+            }
+        }
+
+    }
+
+}
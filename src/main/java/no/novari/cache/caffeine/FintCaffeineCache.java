@@ -0,0 +1,460 @@
+package no.novari.cache.caffeine;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.AccessLevel;
+import lombok.Getter;
+import no.novari.cache.FintCache;
+import no.novari.cache.FintCacheAsyncEventListener;
+import no.novari.cache.FintCacheBatchEventListener;
+import no.novari.cache.FintCacheBatchEventListenerOptions;
+import no.novari.cache.FintCacheBatchEventListeners;
+import no.novari.cache.FintCacheDistinctValueIndex;
+import no.novari.cache.FintCacheEvent;
+import no.novari.cache.FintCacheEventListener;
+import no.novari.cache.FintCacheEventListenerOptions;
+import no.novari.cache.FintCacheExecutors;
+import no.novari.cache.FintCacheExpiry;
+import no.novari.cache.FintCacheRefreshAhead;
+import no.novari.cache.FintCacheSingleFlightLoader;
+import no.novari.cache.FintCacheStatistics;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class FintCaffeineCache<K, V> implements FintCache<K, V> {
+
+    @Getter
+    private final String alias;
+    @Getter(AccessLevel.PACKAGE)
+    private final Class<K> keyClass;
+    @Getter(AccessLevel.PACKAGE)
+    private final Class<V> valueClass;
+    private final Cache<K, V> cache;
+    private final FintCaffeineCacheEventDispatcher<K, V> eventDispatcher;
+    private final FintCacheDistinctValueIndex<K, V> distinctValueIndex;
+    private final boolean internValues;
+    private final FintCacheStatistics<K, V> statistics;
+    private final FintCacheExpiry<K, V> expiry;
+    private final FintCacheRefreshAhead<K, V> refreshAhead;
+    private final FintCacheSingleFlightLoader<K, V> singleFlightLoader;
+    private final FintCacheBatchEventListeners<K, V> batchEventListeners;
+
+    public FintCaffeineCache(
+            String alias,
+            Class<K> keyClass,
+            Class<V> valueClass,
+            Cache<K, V> cache,
+            FintCaffeineCacheEventDispatcher<K, V> eventDispatcher,
+            FintCacheDistinctValueIndex<K, V> distinctValueIndex,
+            boolean internValues,
+            FintCacheStatistics<K, V> statistics,
+            FintCacheExpiry<K, V> expiry,
+            FintCacheRefreshAhead<K, V> refreshAhead
+    ) {
+        this.alias = alias;
+        this.keyClass = keyClass;
+        this.valueClass = valueClass;
+        this.cache = cache;
+        this.eventDispatcher = eventDispatcher;
+        this.distinctValueIndex = distinctValueIndex;
+        this.internValues = internValues;
+        this.statistics = statistics;
+        this.expiry = expiry;
+        this.refreshAhead = refreshAhead;
+        this.singleFlightLoader = new FintCacheSingleFlightLoader<>();
+        this.batchEventListeners = new FintCacheBatchEventListeners<>();
+    }
+
+    @Override
+    public boolean containsKey(K key) {
+        return this.cache.asMap().containsKey(key);
+    }
+
+    @Override
+    public Optional<V> getOptional(K key) {
+        long start = this.statistics.startOperation();
+        if (this.statistics.isAccessSampled()) {
+            this.statistics.recordSampledAccess(key);
+        }
+        // Equal values written concurrently may both be stored before either is indexed, so reads canonicalize
+        V value = this.intern(this.cache.getIfPresent(key));
+        if (value != null) {
+            this.statistics.recordHits(1);
+            if (this.refreshAhead != null) {
+                this.refreshAhead.onHit(this, key);
+            }
+        } else {
+            this.statistics.recordMisses(1);
+        }
+        this.statistics.endOperation(FintCacheStatistics.Operation.GET, start);
+        return Optional.ofNullable(value);
+    }
+
+    @Override
+    public List<V> get(Collection<K> keys) {
+        return new ArrayList<>(this.getAllPresent(keys).values());
+    }
+
+    @Override
+    public Map<K, V> getAllPresent(Collection<K> keys) {
+        long start = this.statistics.startOperation();
+        Set<K> uniqueKeys = keys instanceof Set<K> keySet ? keySet : new LinkedHashSet<>(keys);
+        Map<K, V> hits = this.internValues
+                ? this.distinctValueIndex.getCanonicalValues(this.cache.getAllPresent(uniqueKeys))
+                : this.cache.getAllPresent(uniqueKeys);
+        this.statistics.recordHits(hits.size());
+        this.statistics.recordMisses(uniqueKeys.size() - hits.size());
+        if (this.refreshAhead != null) {
+            hits.keySet().forEach(key -> this.refreshAhead.onHit(this, key));
+        }
+        this.statistics.endOperation(FintCacheStatistics.Operation.GET_BULK, start);
+        return hits;
+    }
+
+    @Override
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader) {
+        return this.singleFlightLoader.getOrLoad(this, key, loader);
+    }
+
+    @Override
+    public Map<K, V> getAllOrLoad(
+            Collection<K> keys,
+            Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> loader
+    ) {
+        return this.singleFlightLoader.getAllOrLoad(this, keys, loader);
+    }
+
+    @Override
+    public List<V> getAll() {
+        return this.cache.asMap().values().stream()
+                .map(this::intern)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<Map.Entry<K, V>> stream() {
+        return this.cache.asMap().entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), this.intern(entry.getValue())));
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        this.cache.asMap().forEach((key, value) -> action.accept(key, this.intern(value)));
+    }
+
+    @Override
+    public List<V> getAllDistinct() {
+        return this.distinctValueIndex != null
+                ? this.distinctValueIndex.getDistinctValues()
+                : FintCache.super.getAllDistinct();
+    }
+
+    @Override
+    public void put(K key, V value) {
+        this.putValue(key, value, null);
+    }
+
+    @Override
+    public void put(K key, V value, Duration timeToLive) {
+        this.putValue(key, value, Objects.requireNonNull(timeToLive));
+    }
+
+    private void putValue(K key, V value, Duration timeToLive) {
+        long start = this.statistics.startOperation();
+        if (this.statistics.isAccessSampled()) {
+            this.statistics.recordSampledAccess(key);
+        }
+        V internedValue = this.intern(value);
+        List<FintCacheEvent<K, V>> writeEvents = new ArrayList<>(1);
+        this.eventDispatcher.beginWrite();
+        try {
+            if (timeToLive != null) {
+                this.expiry.withTimeToLive(key, timeToLive, () -> this.putEntry(key, internedValue, false, writeEvents));
+            } else {
+                this.putEntry(key, internedValue, false, writeEvents);
+            }
+        } finally {
+            this.eventDispatcher.endWrite(writeEvents);
+        }
+        this.statistics.endOperation(FintCacheStatistics.Operation.PUT, start);
+    }
+
+    @Override
+    public void put(Map<? extends K, ? extends V> entries) {
+        this.putEntries(entries, false);
+    }
+
+    @Override
+    public void putLoaded(Map<? extends K, ? extends V> entries) {
+        this.putEntries(entries, true);
+    }
+
+    private void putEntries(Map<? extends K, ? extends V> entries, boolean loaded) {
+        long start = this.statistics.startOperation();
+        List<FintCacheEvent<K, V>> writeEvents = new ArrayList<>(entries.size());
+        this.eventDispatcher.beginWrite();
+        try {
+            (this.internValues ? this.distinctValueIndex.getCanonicalValues(entries) : entries)
+                    .forEach((key, value) -> this.putEntry(key, value, loaded, writeEvents));
+        } finally {
+            this.eventDispatcher.endWrite(writeEvents);
+        }
+        this.statistics.endOperation(FintCacheStatistics.Operation.PUT_BULK, start);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        long start = this.statistics.startOperation();
+        V internedValue = this.intern(value);
+        List<FintCacheEvent<K, V>> writeEvents = new ArrayList<>(1);
+        V existingValue;
+        this.eventDispatcher.beginWrite();
+        try {
+            V currentValue = this.cache.asMap().computeIfAbsent(key, k -> {
+                this.eventDispatcher.onWrite(
+                        new FintCacheEvent<>(FintCacheEvent.EventType.CREATED, k, null, internedValue),
+                        writeEvents
+                );
+                return internedValue;
+            });
+            existingValue = writeEvents.isEmpty() ? this.intern(currentValue) : null;
+        } finally {
+            this.eventDispatcher.endWrite(writeEvents);
+        }
+        this.statistics.endOperation(FintCacheStatistics.Operation.PUT_IF_ABSENT, start);
+        return existingValue;
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        long start = this.statistics.startOperation();
+        V internedValue = this.intern(newValue);
+        List<FintCacheEvent<K, V>> writeEvents = new ArrayList<>(1);
+        boolean replaced;
+        this.eventDispatcher.beginWrite();
+        try {
+            this.cache.asMap().computeIfPresent(key, (k, currentValue) -> {
+                if (!currentValue.equals(oldValue)) {
+                    return currentValue;
+                }
+                this.eventDispatcher.onWrite(
+                        new FintCacheEvent<>(FintCacheEvent.EventType.UPDATED, k, currentValue, internedValue),
+                        writeEvents
+                );
+                return internedValue;
+            });
+            replaced = !writeEvents.isEmpty();
+        } finally {
+            this.eventDispatcher.endWrite(writeEvents);
+        }
+        this.statistics.endOperation(FintCacheStatistics.Operation.REPLACE, start);
+        return replaced;
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        long start = this.statistics.startOperation();
+        V newValue = this.computeEntry(key, remappingFunction);
+        this.statistics.endOperation(FintCacheStatistics.Operation.COMPUTE, start);
+        return newValue;
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value);
+        long start = this.statistics.startOperation();
+        V newValue = this.computeEntry(
+                key,
+                (k, oldValue) -> oldValue == null ? value : remappingFunction.apply(oldValue, value)
+        );
+        this.statistics.endOperation(FintCacheStatistics.Operation.MERGE, start);
+        return newValue;
+    }
+
+    private V computeEntry(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        List<FintCacheEvent<K, V>> writeEvents = new ArrayList<>(1);
+        this.eventDispatcher.beginWrite();
+        try {
+            return this.cache.asMap().compute(key, (k, oldValue) -> {
+                V newValue = this.intern(remappingFunction.apply(k, oldValue));
+                if (oldValue == null && newValue != null) {
+                    this.eventDispatcher.onWrite(
+                            new FintCacheEvent<>(FintCacheEvent.EventType.CREATED, k, null, newValue),
+                            writeEvents
+                    );
+                } else if (oldValue != null && newValue == null) {
+                    this.eventDispatcher.onWrite(
+                            new FintCacheEvent<>(FintCacheEvent.EventType.REMOVED, k, oldValue, null),
+                            writeEvents
+                    );
+                } else if (oldValue != null) {
+                    this.eventDispatcher.onWrite(
+                            new FintCacheEvent<>(FintCacheEvent.EventType.UPDATED, k, oldValue, newValue),
+                            writeEvents
+                    );
+                }
+                return newValue;
+            });
+        } finally {
+            this.eventDispatcher.endWrite(writeEvents);
+        }
+    }
+
+    private V intern(V value) {
+        return this.internValues ? this.distinctValueIndex.getCanonicalValue(value) : value;
+    }
+
+    private void putEntry(K key, V value, boolean loaded, List<FintCacheEvent<K, V>> writeEvents) {
+        this.cache.asMap().compute(key, (k, oldValue) -> {
+            this.eventDispatcher.onWrite(
+                    new FintCacheEvent<>(
+                            oldValue == null ? FintCacheEvent.EventType.CREATED : FintCacheEvent.EventType.UPDATED,
+                            k,
+                            oldValue,
+                            value,
+                            false,
+                            loaded
+                    ),
+                    writeEvents
+            );
+            return value;
+        });
+    }
+
+    @Override
+    public void remove(K key) {
+        long start = this.statistics.startOperation();
+        List<FintCacheEvent<K, V>> writeEvents = new ArrayList<>(1);
+        this.eventDispatcher.beginWrite();
+        try {
+            this.removeEntry(key, writeEvents);
+        } finally {
+            this.eventDispatcher.endWrite(writeEvents);
+        }
+        this.statistics.endOperation(FintCacheStatistics.Operation.REMOVE, start);
+    }
+
+    @Override
+    public void remove(Collection<K> keys) {
+        long start = this.statistics.startOperation();
+        List<FintCacheEvent<K, V>> writeEvents = new ArrayList<>(keys.size());
+        this.eventDispatcher.beginWrite();
+        try {
+            keys.forEach(key -> this.removeEntry(key, writeEvents));
+        } finally {
+            this.eventDispatcher.endWrite(writeEvents);
+        }
+        this.statistics.endOperation(FintCacheStatistics.Operation.REMOVE_BULK, start);
+    }
+
+    @Override
+    public void invalidate(Collection<K> keys) {
+        List<FintCacheEvent<K, V>> writeEvents = new ArrayList<>(keys.size());
+        this.eventDispatcher.beginWrite();
+        try {
+            keys.forEach(key -> this.removeEntry(key, true, writeEvents));
+        } finally {
+            this.eventDispatcher.endWrite(writeEvents);
+        }
+    }
+
+    private void removeEntry(K key, List<FintCacheEvent<K, V>> writeEvents) {
+        this.removeEntry(key, false, writeEvents);
+    }
+
+    private void removeEntry(K key, boolean invalidation, List<FintCacheEvent<K, V>> writeEvents) {
+        this.cache.asMap().computeIfPresent(key, (k, oldValue) -> {
+            this.eventDispatcher.onWrite(
+                    new FintCacheEvent<>(FintCacheEvent.EventType.REMOVED, k, oldValue, null, invalidation),
+                    writeEvents
+            );
+            return null;
+        });
+    }
+
+    @Override
+    public void clear() {
+        this.cache.invalidateAll();
+        if (this.distinctValueIndex != null) {
+            this.distinctValueIndex.reset();
+        }
+        this.expiry.reset();
+    }
+
+    @Override
+    public long getNumberOfEntries() {
+        return this.cache.estimatedSize();
+    }
+
+    @Override
+    public long getNumberOfDistinctValues() {
+        return this.distinctValueIndex != null
+                ? this.distinctValueIndex.getNumberOfDistinctValues()
+                : FintCache.super.getNumberOfDistinctValues();
+    }
+
+    @Override
+    public void addEventListener(FintCacheEventListener<K, V> listener) {
+        this.addEventListener(listener, FintCacheEventListenerOptions.builder().build());
+    }
+
+    @Override
+    public void addEventListener(FintCacheEventListener<K, V> listener, FintCacheEventListenerOptions listenerOptions) {
+        boolean ordered = listenerOptions.ordered == null || listenerOptions.ordered;
+        this.eventDispatcher.register(
+                listener,
+                Boolean.TRUE.equals(listenerOptions.asynchronous)
+                        ? new FintCacheAsyncEventListener<>(
+                        listener,
+                        listenerOptions.executor != null ? listenerOptions.executor : FintCacheExecutors.defaultExecutor,
+                        ordered
+                )
+                        : listener,
+                listenerOptions.eventTypes != null
+                        ? Set.copyOf(listenerOptions.eventTypes)
+                        : EnumSet.allOf(FintCacheEvent.EventType.class),
+                ordered
+        );
+    }
+
+    @Override
+    public void removeEventListener(FintCacheEventListener<K, V> listener) {
+        this.eventDispatcher.deregister(listener);
+    }
+
+    @Override
+    public void addBatchEventListener(
+            FintCacheBatchEventListener<K, V> listener,
+            FintCacheBatchEventListenerOptions listenerOptions
+    ) {
+        this.batchEventListeners.add(this, listener, listenerOptions);
+    }
+
+    @Override
+    public void removeBatchEventListener(FintCacheBatchEventListener<K, V> listener) {
+        this.batchEventListeners.remove(this, listener);
+    }
+
+    void removeBatchEventListeners() {
+        this.batchEventListeners.removeAll(this);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FintCaffeineCache{alias='%s', entries=%d}", this.getAlias(), this.getNumberOfEntries());
+    }
+
+}
@@ -0,0 +1,95 @@
+package no.novari.cache.caffeine;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.extern.slf4j.Slf4j;
+import no.novari.cache.FintCacheEvent;
+import no.novari.cache.FintCacheEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Slf4j
+public class FintCaffeineCacheEventDispatcher<K, V> {
+
+    private record Registration<K, V>(
+            FintCacheEventListener<K, V> listener,
+            FintCacheEventListener<K, V> deliveringListener,
+            Set<FintCacheEvent.EventType> eventTypes,
+            boolean ordered
+    ) {
+    }
+
+    private final List<Registration<K, V>> registrations = new CopyOnWriteArrayList<>();
+
+    // Evictions triggered by a write are collected here so that unordered listeners get them after the write's own event
+    private final ThreadLocal<List<FintCacheEvent<K, V>>> deferredEvents = new ThreadLocal<>();
+
+    public void register(
+            FintCacheEventListener<K, V> listener,
+            FintCacheEventListener<K, V> deliveringListener,
+            Set<FintCacheEvent.EventType> eventTypes,
+            boolean ordered
+    ) {
+        if (this.registrations.stream().anyMatch(registration -> registration.listener() == listener)) {
+            throw new IllegalStateException("Event listener is already registered");
+        }
+        this.registrations.add(new Registration<>(listener, deliveringListener, eventTypes, ordered));
+    }
+
+    public void deregister(FintCacheEventListener<K, V> listener) {
+        this.registrations.removeIf(registration -> registration.listener() == listener);
+    }
+
+    public void beginWrite() {
+        if (this.deferredEvents.get() == null) {
+            this.deferredEvents.set(new ArrayList<>());
+        }
+    }
+
+    // Called while Caffeine holds the entry's lock, so ordered listeners see the events of a key in the order they were applied
+    public void onWrite(FintCacheEvent<K, V> event, List<FintCacheEvent<K, V>> writeEvents) {
+        this.fire(event, true);
+        writeEvents.add(event);
+    }
+
+    public void endWrite(List<FintCacheEvent<K, V>> writeEvents) {
+        List<FintCacheEvent<K, V>> evictionEvents = this.deferredEvents.get();
+        this.deferredEvents.remove();
+        writeEvents.forEach(event -> this.fire(event, false));
+        if (evictionEvents != null) {
+            evictionEvents.forEach(event -> this.fire(event, false));
+        }
+    }
+
+    public void onEviction(K key, V value, RemovalCause cause) {
+        FintCacheEvent<K, V> event = new FintCacheEvent<>(
+                cause == RemovalCause.EXPIRED ? FintCacheEvent.EventType.EXPIRED : FintCacheEvent.EventType.EVICTED,
+                key,
+                value,
+                null
+        );
+        // The eviction listener runs within the atomic removal of the entry
+        this.fire(event, true);
+        List<FintCacheEvent<K, V>> evictionEvents = this.deferredEvents.get();
+        if (evictionEvents != null) {
+            evictionEvents.add(event);
+        } else {
+            this.fire(event, false);
+        }
+    }
+
+    private void fire(FintCacheEvent<K, V> event, boolean ordered) {
+        for (Registration<K, V> registration : this.registrations) {
+            if (registration.ordered() == ordered && registration.eventTypes().contains(event.getType())) {
+                try {
+                    registration.deliveringListener().onEvent(event);
+                } catch (RuntimeException e) {
+                    log.error("Cache event listener failed to handle {} event", event.getType(), e);
+                }
+            }
+        }
+    }
+
+}
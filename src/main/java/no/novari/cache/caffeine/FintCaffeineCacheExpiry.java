@@ -0,0 +1,32 @@
+package no.novari.cache.caffeine;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+import no.novari.cache.FintCacheExpiry;
+
+import java.time.Duration;
+
+public class FintCaffeineCacheExpiry<K, V> implements Expiry<K, V> {
+
+    private final FintCacheExpiry<K, V> expiry;
+
+    public FintCaffeineCacheExpiry(FintCacheExpiry<K, V> expiry) {
+        this.expiry = expiry;
+    }
+
+    @Override
+    public long expireAfterCreate(K key, V value, long currentTime) {
+        return FintCacheExpiry.toNanos(this.expiry.expireAfterWrite(key));
+    }
+
+    @Override
+    public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+        return FintCacheExpiry.toNanos(this.expiry.expireAfterWrite(key));
+    }
+
+    @Override
+    public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+        Duration timeToIdle = this.expiry.expireAfterRead(key);
+        return timeToIdle != null ? FintCacheExpiry.toNanos(timeToIdle) : currentDuration;
+    }
+
+}
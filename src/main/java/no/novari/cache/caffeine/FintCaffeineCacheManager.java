@@ -0,0 +1,145 @@
+package no.novari.cache.caffeine;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import no.novari.cache.AbstractFintCacheManager;
+import no.novari.cache.FintCacheDistinctValueIndex;
+import no.novari.cache.FintCacheExpiry;
+import no.novari.cache.FintCacheOptions;
+import no.novari.cache.FintCacheRefreshAhead;
+import no.novari.cache.FintCacheSizeEstimator;
+import no.novari.cache.FintCacheStatistics;
+import no.novari.cache.FintCacheWeigher;
+import no.novari.cache.exceptions.NoSuchCacheException;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+public class FintCaffeineCacheManager extends AbstractFintCacheManager {
+
+    private final Map<String, FintCaffeineCache<?, ?>> caches;
+
+    public FintCaffeineCacheManager(FintCacheOptions defaultCacheOptions) {
+        this(defaultCacheOptions, null);
+    }
+
+    public FintCaffeineCacheManager(FintCacheOptions defaultCacheOptions, MeterRegistry meterRegistry) {
+        super(defaultCacheOptions, meterRegistry);
+        this.caches = new ConcurrentHashMap<>();
+    }
+
+    public <K, V> FintCaffeineCache<K, V> createCache(String alias, Class<K> keyClass, Class<V> valueClass) {
+        return createCache(alias, keyClass, valueClass, FintCacheOptions.builder().build());
+    }
+
+    public <K, V> FintCaffeineCache<K, V> createCache(String alias, Class<K> keyClass, Class<V> valueClass, FintCacheOptions cacheOptions) {
+        return createCache(alias, keyClass, valueClass, cacheOptions, null);
+    }
+
+    public <K, V> FintCaffeineCache<K, V> createCache(
+            String alias,
+            Class<K> keyClass,
+            Class<V> valueClass,
+            FintCacheOptions cacheOptions,
+            Function<? super K, ? extends V> refreshLoader
+    ) {
+        if (this.resolveOption(cacheOptions, options -> options.offHeapSize) != null
+                || this.resolveOption(cacheOptions, options -> options.diskSize) != null) {
+            throw new IllegalArgumentException("Caffeine caches only support a heap tier");
+        }
+
+        FintCaffeineCacheEventDispatcher<K, V> eventDispatcher = new FintCaffeineCacheEventDispatcher<>();
+        FintCacheExpiry<K, V> expiry = this.createExpiry(cacheOptions, refreshLoader != null);
+        // Maintenance runs on the calling thread so size bounds and eviction events are applied within the write
+        Cache<K, V> caffeineCache = this.createBoundedBuilder(cacheOptions)
+                .expireAfter(new FintCaffeineCacheExpiry<>(expiry))
+                .executor(Runnable::run)
+                .scheduler(Scheduler.systemScheduler())
+                .<K, V>evictionListener(eventDispatcher::onEviction)
+                .build();
+
+        FintCacheDistinctValueIndex<K, V> distinctValueIndex = this.isIndexingDistinctValues(cacheOptions)
+                ? new FintCacheDistinctValueIndex<>()
+                : null;
+        FintCacheStatistics<K, V> statistics = new FintCacheStatistics<>();
+        FintCacheRefreshAhead<K, V> refreshAhead = this.createRefreshAhead(cacheOptions, expiry, refreshLoader);
+
+        FintCaffeineCache<K, V> cache = new FintCaffeineCache<>(
+                alias,
+                keyClass,
+                valueClass,
+                caffeineCache,
+                eventDispatcher,
+                distinctValueIndex,
+                this.isInterningValues(cacheOptions),
+                statistics,
+                expiry,
+                refreshAhead
+        );
+        this.reserveAlias(alias);
+        this.caches.put(alias, cache);
+        if (distinctValueIndex != null) {
+            cache.addEventListener(distinctValueIndex);
+        }
+        if (expiry.isTrackingWriteTimes()) {
+            cache.addEventListener(expiry);
+        }
+        this.registerCacheSupport(cache, cacheOptions, statistics);
+        return cache;
+    }
+
+    private Caffeine<Object, Object> createBoundedBuilder(FintCacheOptions cacheOptions) {
+        DataSize heapMemorySize = this.resolveHeapMemorySize(cacheOptions);
+        if (heapMemorySize == null) {
+            if (cacheOptions.weigher != null) {
+                throw new IllegalArgumentException("A weigher requires the cache heap to be sized by memory size");
+            }
+            return Caffeine.newBuilder().maximumSize(this.resolveOption(cacheOptions, options -> options.heapSize));
+        }
+        FintCacheWeigher<Object, Object> weigher = cacheOptions.weigher != null
+                ? cast(cacheOptions.weigher)
+                : FintCacheSizeEstimator::estimateShallowEntry;
+        return Caffeine.newBuilder()
+                .maximumWeight(heapMemorySize.toBytes())
+                .weigher((key, value) -> (int) Math.min(Integer.MAX_VALUE, weigher.weigh(key, value)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FintCacheWeigher<Object, Object> cast(FintCacheWeigher<?, ?> weigher) {
+        return (FintCacheWeigher<Object, Object>) weigher;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <K, V> FintCaffeineCache<K, V> getCache(String alias, Class<K> keyClass, Class<V> valueClass) {
+        FintCaffeineCache<?, ?> cache = Optional.ofNullable(this.caches.get(alias))
+                .orElseThrow(() -> new NoSuchCacheException(alias));
+        if (!cache.getKeyClass().equals(keyClass) || !cache.getValueClass().equals(valueClass)) {
+            throw new IllegalArgumentException(String.format(
+                    "Cache with alias='%s' has key type %s and value type %s",
+                    alias, cache.getKeyClass().getName(), cache.getValueClass().getName()
+            ));
+        }
+        return (FintCaffeineCache<K, V>) cache;
+    }
+
+    @Override
+    public <K, V> void removeCache(String alias) {
+        Optional.ofNullable(this.caches.remove(alias)).ifPresent(cache -> {
+            cache.removeBatchEventListeners();
+            cache.clear();
+        });
+        this.unregisterCacheSupport(alias);
+    }
+
+    @Override
+    public synchronized void close() {
+        this.caches.values().forEach(FintCaffeineCache::removeBatchEventListeners);
+        super.close();
+    }
+
+}
@@ -2,20 +2,42 @@ package no.novari.cache.ehcache;
 
 import lombok.Getter;
 import no.novari.cache.FintCache;
+import no.novari.cache.FintCacheAsyncEventListener;
+import no.novari.cache.FintCacheBatchEventListener;
+import no.novari.cache.FintCacheBatchEventListenerOptions;
+import no.novari.cache.FintCacheBatchEventListeners;
+import no.novari.cache.FintCacheDistinctValueIndex;
+import no.novari.cache.FintCacheEvent;
 import no.novari.cache.FintCacheEventListener;
+import no.novari.cache.FintCacheEventListenerOptions;
+import no.novari.cache.FintCacheExecutors;
+import no.novari.cache.FintCacheExpiry;
+import no.novari.cache.FintCacheRefreshAhead;
+import no.novari.cache.FintCacheSingleFlightLoader;
+import no.novari.cache.FintCacheStatistics;
 import org.ehcache.Cache;
 import org.ehcache.event.EventFiring;
 import org.ehcache.event.EventOrdering;
 import org.ehcache.event.EventType;
 
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 public class FintEhCache<K, V> implements FintCache<K, V> {
@@ -23,10 +45,41 @@ public class FintEhCache<K, V> implements FintCache<K, V> {
     @Getter
     private final String alias;
     private final Cache<K, V> cache;
+    private final FintEhCacheEntryCounter<K, V> entryCounter;
+    private final FintCacheDistinctValueIndex<K, V> distinctValueIndex;
+    private final boolean internValues;
+    private final FintCacheStatistics<K, V> statistics;
+    private final FintCacheExpiry<K, V> expiry;
+    private final FintCacheRefreshAhead<K, V> refreshAhead;
+    private final FintCacheSingleFlightLoader<K, V> singleFlightLoader;
+    private final Map<FintCacheEventListener<K, V>, FintEhCacheEventListener<K, V>> registeredEventListeners;
+    private final Map<K, Integer> invalidatingKeys;
+    private final Map<K, Integer> loadingKeys;
+    private final FintCacheBatchEventListeners<K, V> batchEventListeners;
 
-    public FintEhCache(String alias, Cache<K, V> cache) {
+    public FintEhCache(
+            String alias,
+            Cache<K, V> cache,
+            FintEhCacheEntryCounter<K, V> entryCounter,
+            FintCacheDistinctValueIndex<K, V> distinctValueIndex,
+            boolean internValues,
+            FintCacheStatistics<K, V> statistics,
+            FintCacheExpiry<K, V> expiry,
+            FintCacheRefreshAhead<K, V> refreshAhead
+    ) {
         this.alias = alias;
         this.cache = cache;
+        this.entryCounter = entryCounter;
+        this.distinctValueIndex = distinctValueIndex;
+        this.internValues = internValues;
+        this.statistics = statistics;
+        this.expiry = expiry;
+        this.refreshAhead = refreshAhead;
+        this.singleFlightLoader = new FintCacheSingleFlightLoader<>();
+        this.batchEventListeners = new FintCacheBatchEventListeners<>();
+        this.registeredEventListeners = new ConcurrentHashMap<>();
+        this.invalidatingKeys = new ConcurrentHashMap<>();
+        this.loadingKeys = new ConcurrentHashMap<>();
     }
 
     @Override
@@ -36,63 +89,320 @@ public class FintEhCache<K, V> implements FintCache<K, V> {
 
     @Override
     public Optional<V> getOptional(K key) {
-        return Optional.ofNullable(this.cache.get(key));
+        long start = this.statistics.startOperation();
+        if (this.statistics.isAccessSampled()) {
+            this.statistics.recordSampledAccess(key);
+        }
+        V value = this.intern(this.cache.get(key));
+        if (value != null) {
+            this.statistics.recordHits(1);
+            if (this.refreshAhead != null) {
+                this.refreshAhead.onHit(this, key);
+            }
+        } else {
+            this.statistics.recordMisses(1);
+        }
+        this.statistics.endOperation(FintCacheStatistics.Operation.GET, start);
+        return Optional.ofNullable(value);
     }
 
     @Override
     public List<V> get(Collection<K> keys) {
-        return new ArrayList<>(this.cache.getAll(new HashSet<>(keys)).values());
+        return new ArrayList<>(this.getAllPresent(keys).values());
+    }
+
+    @Override
+    public Map<K, V> getAllPresent(Collection<K> keys) {
+        long start = this.statistics.startOperation();
+        Set<K> uniqueKeys = keys instanceof Set<K> keySet ? keySet : new LinkedHashSet<>(keys);
+        Map<K, V> entries = this.cache.getAll(uniqueKeys);
+        Map<K, V> hits = new LinkedHashMap<>(Math.max(16, (int) (uniqueKeys.size() / 0.75f) + 1));
+        for (K key : uniqueKeys) {
+            V value = this.intern(entries.get(key));
+            if (value != null) {
+                hits.put(key, value);
+            }
+        }
+        this.statistics.recordHits(hits.size());
+        this.statistics.recordMisses(uniqueKeys.size() - hits.size());
+        if (this.refreshAhead != null) {
+            hits.keySet().forEach(key -> this.refreshAhead.onHit(this, key));
+        }
+        this.statistics.endOperation(FintCacheStatistics.Operation.GET_BULK, start);
+        return hits;
+    }
+
+    @Override
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader) {
+        return this.singleFlightLoader.getOrLoad(this, key, loader);
+    }
+
+    @Override
+    public Map<K, V> getAllOrLoad(
+            Collection<K> keys,
+            Function<? super Set<K>, ? extends Map<? extends K, ? extends V>> loader
+    ) {
+        return this.singleFlightLoader.getAllOrLoad(this, keys, loader);
     }
 
     @Override
     public List<V> getAll() {
         return StreamSupport.stream(this.cache.spliterator(), false)
-                .map(Cache.Entry::getValue)
+                .map(entry -> this.intern(entry.getValue()))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public Stream<Map.Entry<K, V>> stream() {
+        return StreamSupport.stream(this.cache.spliterator(), false)
+                .map(entry -> Map.entry(entry.getKey(), this.intern(entry.getValue())));
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        for (Cache.Entry<K, V> entry : this.cache) {
+            action.accept(entry.getKey(), this.intern(entry.getValue()));
+        }
+    }
+
+    @Override
+    public List<V> getAllDistinct() {
+        return this.distinctValueIndex != null
+                ? this.distinctValueIndex.getDistinctValues()
+                : FintCache.super.getAllDistinct();
+    }
+
     @Override
     public void put(K key, V value) {
-        this.cache.put(key, value);
+        this.putEntry(key, value, null);
+    }
+
+    @Override
+    public void put(K key, V value, Duration timeToLive) {
+        this.putEntry(key, value, Objects.requireNonNull(timeToLive));
+    }
+
+    private void putEntry(K key, V value, Duration timeToLive) {
+        long start = this.statistics.startOperation();
+        if (this.statistics.isAccessSampled()) {
+            this.statistics.recordSampledAccess(key);
+        }
+        V internedValue = this.intern(value);
+        if (timeToLive != null) {
+            this.expiry.withTimeToLive(key, timeToLive, () -> this.cache.put(key, internedValue));
+        } else {
+            this.cache.put(key, internedValue);
+        }
+        this.statistics.endOperation(FintCacheStatistics.Operation.PUT, start);
     }
 
     @Override
     public void put(Map<? extends K, ? extends V> entries) {
-        this.cache.putAll(entries);
+        long start = this.statistics.startOperation();
+        this.cache.putAll(this.internValues ? this.distinctValueIndex.getCanonicalValues(entries) : entries);
+        this.statistics.endOperation(FintCacheStatistics.Operation.PUT_BULK, start);
+    }
+
+    // Marked by key while they are written, for the same reason as invalidations
+    @Override
+    public void putLoaded(Map<? extends K, ? extends V> entries) {
+        Set<K> keys = new HashSet<>(entries.keySet());
+        keys.forEach(key -> this.loadingKeys.merge(key, 1, Integer::sum));
+        try {
+            this.put(entries);
+        } finally {
+            keys.forEach(key -> this.loadingKeys.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null));
+        }
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        long start = this.statistics.startOperation();
+        V existingValue = this.intern(this.cache.putIfAbsent(key, this.intern(value)));
+        this.statistics.endOperation(FintCacheStatistics.Operation.PUT_IF_ABSENT, start);
+        return existingValue;
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        long start = this.statistics.startOperation();
+        boolean replaced = this.cache.replace(key, oldValue, this.intern(newValue));
+        this.statistics.endOperation(FintCacheStatistics.Operation.REPLACE, start);
+        return replaced;
+    }
+
+    @Override
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remappingFunction) {
+        long start = this.statistics.startOperation();
+        V newValue = this.computeEntry(key, oldValue -> remappingFunction.apply(key, oldValue));
+        this.statistics.endOperation(FintCacheStatistics.Operation.COMPUTE, start);
+        return newValue;
+    }
+
+    @Override
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction) {
+        Objects.requireNonNull(value);
+        long start = this.statistics.startOperation();
+        V newValue = this.computeEntry(key, oldValue -> oldValue == null ? value : remappingFunction.apply(oldValue, value));
+        this.statistics.endOperation(FintCacheStatistics.Operation.MERGE, start);
+        return newValue;
+    }
+
+    // Ehcache has no compute, so the new value is swapped in with its atomic conditional writes and retried on contention
+    private V computeEntry(K key, Function<V, ? extends V> remappingFunction) {
+        while (true) {
+            V oldValue = this.cache.get(key);
+            V newValue = this.intern(remappingFunction.apply(oldValue));
+            if (oldValue == null) {
+                if (newValue == null || this.cache.putIfAbsent(key, newValue) == null) {
+                    return newValue;
+                }
+            } else if (newValue == null) {
+                if (this.cache.remove(key, oldValue)) {
+                    return null;
+                }
+            } else if (this.cache.replace(key, oldValue, newValue)) {
+                return newValue;
+            }
+        }
+    }
+
+    private V intern(V value) {
+        return this.internValues ? this.distinctValueIndex.getCanonicalValue(value) : value;
     }
 
     @Override
     public void remove(K key) {
+        long start = this.statistics.startOperation();
         this.cache.remove(key);
+        this.statistics.endOperation(FintCacheStatistics.Operation.REMOVE, start);
     }
 
     @Override
     public void remove(Collection<K> keys) {
-        this.cache.removeAll(new HashSet<>(keys));
+        long start = this.statistics.startOperation();
+        this.cache.removeAll(keys instanceof Set<K> keySet ? keySet : new HashSet<>(keys));
+        this.statistics.endOperation(FintCacheStatistics.Operation.REMOVE_BULK, start);
+    }
+
+    // Ehcache delivers events on its own dispatcher threads, so removals are marked by key while they are applied
+    @Override
+    public void invalidate(Collection<K> keys) {
+        Set<K> keySet = keys instanceof Set<K> set ? set : new HashSet<>(keys);
+        keySet.forEach(key -> this.invalidatingKeys.merge(key, 1, Integer::sum));
+        try {
+            this.cache.removeAll(keySet);
+        } finally {
+            keySet.forEach(key -> this.invalidatingKeys.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null));
+        }
+    }
+
+    private FintCacheEvent<K, V> mark(FintCacheEvent<K, V> event) {
+        if (event.getType() == FintCacheEvent.EventType.REMOVED && this.invalidatingKeys.containsKey(event.getKey())) {
+            return new FintCacheEvent<>(event.getType(), event.getKey(), event.getOldValue(), null, true);
+        }
+        if ((event.getType() == FintCacheEvent.EventType.CREATED || event.getType() == FintCacheEvent.EventType.UPDATED)
+                && this.loadingKeys.containsKey(event.getKey())) {
+            return new FintCacheEvent<>(event.getType(), event.getKey(), event.getOldValue(), event.getNewValue(), false, true);
+        }
+        return event;
     }
 
     @Override
     public void clear() {
         this.cache.clear();
+        this.entryCounter.reset();
+        if (this.distinctValueIndex != null) {
+            this.distinctValueIndex.reset();
+        }
+        this.expiry.reset();
+    }
+
+    @Override
+    public long getNumberOfEntries() {
+        return this.entryCounter.getNumberOfEntries();
+    }
+
+    @Override
+    public long getNumberOfDistinctValues() {
+        return this.distinctValueIndex != null
+                ? this.distinctValueIndex.getNumberOfDistinctValues()
+                : FintCache.super.getNumberOfDistinctValues();
     }
 
     @Override
     public void addEventListener(FintCacheEventListener<K, V> listener) {
+        this.addEventListener(listener, FintCacheEventListenerOptions.builder().build());
+    }
+
+    @Override
+    public void addEventListener(FintCacheEventListener<K, V> listener, FintCacheEventListenerOptions listenerOptions) {
+        boolean asynchronous = Boolean.TRUE.equals(listenerOptions.asynchronous);
+        boolean ordered = listenerOptions.ordered == null || listenerOptions.ordered;
+        Set<FintCacheEvent.EventType> eventTypes = listenerOptions.eventTypes != null
+                ? listenerOptions.eventTypes
+                : EnumSet.allOf(FintCacheEvent.EventType.class);
+
+        FintEhCacheEventListener<K, V> ehCacheEventListener = this.toEhCacheEventListener(asynchronous
+                ? new FintCacheAsyncEventListener<>(
+                listener,
+                listenerOptions.executor != null ? listenerOptions.executor : FintCacheExecutors.defaultExecutor,
+                ordered
+        )
+                : listener);
+
+        if (this.registeredEventListeners.putIfAbsent(listener, ehCacheEventListener) != null) {
+            throw new IllegalStateException("Event listener is already registered");
+        }
         this.cache
                 .getRuntimeConfiguration()
                 .registerCacheEventListener(
-                        (FintEhCacheEventListener<K, V>) listener,
-                        EventOrdering.ORDERED,
+                        ehCacheEventListener,
+                        ordered ? EventOrdering.ORDERED : EventOrdering.UNORDERED,
                         EventFiring.SYNCHRONOUS,
-                        Arrays.stream(EventType.values()).collect(Collectors.toSet())
+                        eventTypes.stream()
+                                .map(eventType -> EventType.valueOf(eventType.name()))
+                                .collect(Collectors.toSet())
                 );
     }
 
+    private FintEhCacheEventListener<K, V> toEhCacheEventListener(FintCacheEventListener<K, V> listener) {
+        if (listener instanceof FintEhCacheEventListener<K, V> ehCacheEventListener) {
+            return ehCacheEventListener;
+        }
+        return new FintEhCacheEventListener<>() {
+            @Override
+            public void onEvent(FintCacheEvent<K, V> event) {
+                listener.onEvent(mark(event));
+            }
+        };
+    }
+
     @Override
     public void removeEventListener(FintCacheEventListener<K, V> listener) {
-        this.cache
-                .getRuntimeConfiguration()
-                .deregisterCacheEventListener((FintEhCacheEventListener<K, V>) listener);
+        FintEhCacheEventListener<K, V> ehCacheEventListener = this.registeredEventListeners.remove(listener);
+        if (ehCacheEventListener != null) {
+            this.cache
+                    .getRuntimeConfiguration()
+                    .deregisterCacheEventListener(ehCacheEventListener);
+        }
+    }
+
+    @Override
+    public void addBatchEventListener(
+            FintCacheBatchEventListener<K, V> listener,
+            FintCacheBatchEventListenerOptions listenerOptions
+    ) {
+        this.batchEventListeners.add(this, listener, listenerOptions);
+    }
+
+    @Override
+    public void removeBatchEventListener(FintCacheBatchEventListener<K, V> listener) {
+        this.batchEventListeners.remove(this, listener);
+    }
+
+    void removeBatchEventListeners() {
+        this.batchEventListeners.removeAll(this);
     }
 
     @Override
@@ -0,0 +1,30 @@
+package no.novari.cache.ehcache;
+
+import no.novari.cache.FintCacheEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class FintEhCacheEntryCounter<K, V> extends FintEhCacheEventListener<K, V> {
+
+    private final AtomicLong numberOfEntries = new AtomicLong();
+
+    @Override
+    public void onEvent(FintCacheEvent<K, V> event) {
+        switch (event.getType()) {
+            case CREATED -> this.numberOfEntries.incrementAndGet();
+            case REMOVED, EXPIRED, EVICTED -> this.numberOfEntries.decrementAndGet();
+            case UPDATED -> {
+            }
+        }
+    }
+
+    public long getNumberOfEntries() {
+        return Math.max(0, this.numberOfEntries.get());
+    }
+
+    // Ehcache does not fire events on clear
+    public void reset() {
+        this.numberOfEntries.set(0);
+    }
+
+}
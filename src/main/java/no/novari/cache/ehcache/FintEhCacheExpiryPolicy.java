@@ -0,0 +1,32 @@
+package no.novari.cache.ehcache;
+
+import no.novari.cache.FintCacheExpiry;
+import org.ehcache.expiry.ExpiryPolicy;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+public class FintEhCacheExpiryPolicy<K, V> implements ExpiryPolicy<K, V> {
+
+    private final FintCacheExpiry<K, V> expiry;
+
+    public FintEhCacheExpiryPolicy(FintCacheExpiry<K, V> expiry) {
+        this.expiry = expiry;
+    }
+
+    @Override
+    public Duration getExpiryForCreation(K key, V value) {
+        return this.expiry.expireAfterWrite(key);
+    }
+
+    @Override
+    public Duration getExpiryForAccess(K key, Supplier<? extends V> value) {
+        return this.expiry.expireAfterRead(key);
+    }
+
+    @Override
+    public Duration getExpiryForUpdate(K key, Supplier<? extends V> oldValue, V newValue) {
+        return this.expiry.expireAfterWrite(key);
+    }
+
+}
@@ -1,26 +1,55 @@
 package no.novari.cache.ehcache;
 
-import no.novari.cache.FintCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import no.novari.cache.AbstractFintCacheManager;
+import no.novari.cache.FintCacheDistinctValueIndex;
+import no.novari.cache.FintCacheEvent;
+import no.novari.cache.FintCacheEventListenerOptions;
+import no.novari.cache.FintCacheExpiry;
 import no.novari.cache.FintCacheOptions;
+import no.novari.cache.FintCacheRefreshAhead;
+import no.novari.cache.FintCacheStatistics;
+import no.novari.cache.FintCacheSerializer;
 import no.novari.cache.exceptions.NoSuchCacheException;
+import org.ehcache.Cache;
 import org.ehcache.CacheManager;
 import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.ResourcePools;
 import org.ehcache.config.builders.CacheConfigurationBuilder;
 import org.ehcache.config.builders.CacheManagerBuilder;
-import org.ehcache.config.builders.ExpiryPolicyBuilder;
 import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.springframework.util.unit.DataSize;
 
-import java.time.Duration;
+import java.nio.file.Path;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
-public class FintEhCacheManager implements FintCacheManager {
+public class FintEhCacheManager extends AbstractFintCacheManager {
 
     private final CacheManager cacheManager;
-    private final FintCacheOptions defaultCacheOptions;
+    private final Path storageDirectory;
+    private final Map<String, FintEhCache<?, ?>> caches;
 
     public FintEhCacheManager(FintCacheOptions defaultCacheOptions) {
-        this.cacheManager = CacheManagerBuilder.newCacheManagerBuilder().build(true);
-        this.defaultCacheOptions = defaultCacheOptions;
+        this(defaultCacheOptions, null);
+    }
+
+    public FintEhCacheManager(FintCacheOptions defaultCacheOptions, Path storageDirectory) {
+        this(defaultCacheOptions, storageDirectory, null);
+    }
+
+    public FintEhCacheManager(FintCacheOptions defaultCacheOptions, Path storageDirectory, MeterRegistry meterRegistry) {
+        super(defaultCacheOptions, meterRegistry);
+        this.cacheManager = storageDirectory != null
+                ? CacheManagerBuilder.newCacheManagerBuilder()
+                .with(CacheManagerBuilder.persistence(storageDirectory.toFile()))
+                .build(true)
+                : CacheManagerBuilder.newCacheManagerBuilder().build(true);
+        this.storageDirectory = storageDirectory;
+        this.caches = new ConcurrentHashMap<>();
     }
 
     public <K, V> FintEhCache<K, V> createCache(String alias, Class<K> keyClass, Class<V> valueClass) {
@@ -28,42 +57,153 @@ public class FintEhCacheManager implements FintCacheManager {
     }
 
     public <K, V> FintEhCache<K, V> createCache(String alias, Class<K> keyClass, Class<V> valueClass, FintCacheOptions cacheOptions) {
-        CacheConfiguration<K, V> cacheConfiguration = CacheConfigurationBuilder.newCacheConfigurationBuilder(
+        return createCache(alias, keyClass, valueClass, cacheOptions, null);
+    }
+
+    public <K, V> FintEhCache<K, V> createCache(
+            String alias,
+            Class<K> keyClass,
+            Class<V> valueClass,
+            FintCacheOptions cacheOptions,
+            Function<? super K, ? extends V> refreshLoader
+    ) {
+        FintCacheExpiry<K, V> expiry = this.createExpiry(cacheOptions, refreshLoader != null);
+        CacheConfigurationBuilder<K, V> cacheConfigurationBuilder = CacheConfigurationBuilder.newCacheConfigurationBuilder(
                         keyClass,
                         valueClass,
-                        ResourcePoolsBuilder.heap(
-                                cacheOptions.heapSize != null
-                                        ? cacheOptions.heapSize
-                                        : this.defaultCacheOptions.heapSize
-                        ).build()
+                        this.createResourcePools(cacheOptions)
                 )
-                .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofMillis(
-                                cacheOptions.timeToLive != null
-                                        ? cacheOptions.timeToLive.toMillis()
-                                        : this.defaultCacheOptions.timeToLive.toMillis()
-                        ))
-                ).build();
+                .withExpiry(new FintEhCacheExpiryPolicy<>(expiry));
+        if (cacheOptions.keySerializer != null) {
+            cacheConfigurationBuilder = cacheConfigurationBuilder.withKeySerializer(
+                    new FintEhCacheSerializer<>(cast(cacheOptions.keySerializer, keyClass))
+            );
+        }
+        if (cacheOptions.valueSerializer != null) {
+            cacheConfigurationBuilder = cacheConfigurationBuilder.withValueSerializer(
+                    new FintEhCacheSerializer<>(cast(cacheOptions.valueSerializer, valueClass))
+            );
+        }
+        CacheConfiguration<K, V> cacheConfiguration = cacheConfigurationBuilder.build();
+
+        FintEhCacheEntryCounter<K, V> entryCounter = new FintEhCacheEntryCounter<>();
+        FintCacheDistinctValueIndex<K, V> distinctValueIndex = this.isIndexingDistinctValues(cacheOptions)
+                ? new FintCacheDistinctValueIndex<>()
+                : null;
+
+        FintCacheRefreshAhead<K, V> refreshAhead = this.createRefreshAhead(cacheOptions, expiry, refreshLoader);
+
+        this.reserveAlias(alias);
+        Cache<K, V> ehCache;
+        try {
+            ehCache = this.cacheManager.createCache(alias, cacheConfiguration);
+        } catch (RuntimeException e) {
+            this.releaseAlias(alias);
+            throw e;
+        }
+        if (this.isPersistent(cacheOptions)) {
+            this.registerPersistedEntries(ehCache, entryCounter, distinctValueIndex, expiry);
+        }
+
+        FintCacheStatistics<K, V> statistics = new FintCacheStatistics<>();
 
         FintEhCache<K, V> cache = new FintEhCache<>(
                 alias,
-                this.cacheManager.createCache(
-                        alias,
-                        cacheConfiguration
-                )
+                ehCache,
+                entryCounter,
+                distinctValueIndex,
+                this.isInterningValues(cacheOptions),
+                statistics,
+                expiry,
+                refreshAhead
         );
-        cache.addEventListener(new FintEhCacheEventLogger<>(alias));
+        this.caches.put(alias, cache);
+        cache.addEventListener(entryCounter, FintCacheEventListenerOptions.builder().ordered(false).build());
+        if (distinctValueIndex != null) {
+            cache.addEventListener(distinctValueIndex);
+        }
+        if (expiry.isTrackingWriteTimes()) {
+            cache.addEventListener(expiry);
+        }
+        this.registerCacheSupport(cache, cacheOptions, statistics);
         return cache;
     }
 
+    private ResourcePools createResourcePools(FintCacheOptions cacheOptions) {
+        if (cacheOptions.weigher != null) {
+            throw new IllegalArgumentException("Ehcache sizes heap entries itself");
+        }
+        DataSize heapMemorySize = this.resolveHeapMemorySize(cacheOptions);
+        ResourcePoolsBuilder resourcePoolsBuilder = heapMemorySize != null
+                ? ResourcePoolsBuilder.newResourcePoolsBuilder().heap(heapMemorySize.toBytes(), MemoryUnit.B)
+                : ResourcePoolsBuilder.heap(this.resolveOption(cacheOptions, options -> options.heapSize));
+        DataSize offHeapSize = this.resolveOption(cacheOptions, options -> options.offHeapSize);
+        if (offHeapSize != null) {
+            resourcePoolsBuilder = resourcePoolsBuilder.offheap(offHeapSize.toBytes(), MemoryUnit.B);
+        }
+        DataSize diskSize = this.resolveOption(cacheOptions, options -> options.diskSize);
+        boolean persistent = this.isPersistent(cacheOptions);
+        if (persistent && diskSize == null) {
+            throw new IllegalArgumentException("A persistent cache requires a disk tier");
+        }
+        if (diskSize != null) {
+            if (this.storageDirectory == null) {
+                throw new IllegalArgumentException("A disk tier requires the cache manager to have a storage directory");
+            }
+            resourcePoolsBuilder = resourcePoolsBuilder.disk(diskSize.toBytes(), MemoryUnit.B, persistent);
+        }
+        return resourcePoolsBuilder.build();
+    }
+
+    private boolean isPersistent(FintCacheOptions cacheOptions) {
+        return Boolean.TRUE.equals(this.resolveOption(cacheOptions, options -> options.persistent));
+    }
+
+    private <K, V> void registerPersistedEntries(
+            Cache<K, V> ehCache,
+            FintEhCacheEntryCounter<K, V> entryCounter,
+            FintCacheDistinctValueIndex<K, V> distinctValueIndex,
+            FintCacheExpiry<K, V> expiry
+    ) {
+        for (Cache.Entry<K, V> entry : ehCache) {
+            FintCacheEvent<K, V> event = new FintCacheEvent<>(
+                    FintCacheEvent.EventType.CREATED,
+                    entry.getKey(),
+                    null,
+                    entry.getValue()
+            );
+            entryCounter.onEvent(event);
+            if (distinctValueIndex != null) {
+                distinctValueIndex.onEvent(event);
+            }
+            expiry.recordWrite(entry.getKey());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> FintCacheSerializer<T> cast(FintCacheSerializer<?> serializer, Class<T> type) {
+        return (FintCacheSerializer<T>) serializer;
+    }
+
+    @SuppressWarnings("unchecked")
     public <K, V> FintEhCache<K, V> getCache(String alias, Class<K> keyClass, Class<V> valueClass) {
         return Optional.ofNullable(this.cacheManager.getCache(alias, keyClass, valueClass))
-                .map(cache -> new FintEhCache<>(alias, cache))
+                .map(cache -> (FintEhCache<K, V>) this.caches.get(alias))
                 .orElseThrow(() -> new NoSuchCacheException(alias));
     }
 
     @Override
     public <K, V> void removeCache(String alias) {
+        Optional.ofNullable(this.caches.remove(alias)).ifPresent(FintEhCache::removeBatchEventListeners);
         this.cacheManager.removeCache(alias);
+        this.unregisterCacheSupport(alias);
+    }
+
+    @Override
+    public synchronized void close() {
+        this.caches.values().forEach(FintEhCache::removeBatchEventListeners);
+        super.close();
+        this.cacheManager.close();
     }
 
 }
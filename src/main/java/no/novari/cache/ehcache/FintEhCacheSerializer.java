@@ -0,0 +1,43 @@
+package no.novari.cache.ehcache;
+
+import no.novari.cache.FintCacheSerializer;
+import org.ehcache.spi.serialization.Serializer;
+import org.ehcache.spi.serialization.SerializerException;
+
+import java.nio.ByteBuffer;
+import java.util.Objects;
+
+public class FintEhCacheSerializer<T> implements Serializer<T> {
+
+    private final FintCacheSerializer<T> serializer;
+
+    public FintEhCacheSerializer(FintCacheSerializer<T> serializer) {
+        this.serializer = serializer;
+    }
+
+    @Override
+    public ByteBuffer serialize(T object) throws SerializerException {
+        try {
+            return ByteBuffer.wrap(this.serializer.serialize(object));
+        } catch (RuntimeException e) {
+            throw new SerializerException(e);
+        }
+    }
+
+    @Override
+    public T read(ByteBuffer binary) throws SerializerException {
+        byte[] bytes = new byte[binary.remaining()];
+        binary.get(bytes);
+        try {
+            return this.serializer.deserialize(bytes);
+        } catch (RuntimeException e) {
+            throw new SerializerException(e);
+        }
+    }
+
+    @Override
+    public boolean equals(T object, ByteBuffer binary) throws SerializerException {
+        return Objects.equals(object, this.read(binary));
+    }
+
+}
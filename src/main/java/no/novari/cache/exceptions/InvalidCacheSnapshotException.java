@@ -0,0 +1,9 @@
+package no.novari.cache.exceptions;
+
+public class InvalidCacheSnapshotException extends RuntimeException {
+
+    public InvalidCacheSnapshotException(String file, String reason) {
+        super(String.format("Invalid cache snapshot file='%s': %s", file, reason));
+    }
+
+}
@@ -0,0 +1,149 @@
+package no.novari.cache;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FintCacheEventLoggerTest {
+
+    private Logger logger;
+    private Level previousLevel;
+    private ListAppender<ILoggingEvent> appender;
+
+    @BeforeEach
+    void setUp() {
+        this.logger = (Logger) LoggerFactory.getLogger(FintCacheEventLogger.class);
+        this.previousLevel = this.logger.getLevel();
+        this.logger.setLevel(Level.INFO);
+        this.appender = new ListAppender<>();
+        this.appender.start();
+        this.logger.addAppender(this.appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.logger.detachAppender(this.appender);
+        this.logger.setLevel(this.previousLevel);
+    }
+
+    private List<String> getLoggedMessages() {
+        return this.appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+    }
+
+    private void logCreatedEvents(FintCacheEventLogger<String, Integer> eventLogger, int numberOfEvents) {
+        for (int i = 0; i < numberOfEvents; i++) {
+            eventLogger.onEvent(new FintCacheEvent<>(FintCacheEvent.EventType.CREATED, "testKey" + i, null, i));
+        }
+    }
+
+    @Test
+    void shouldLogEveryEventOfSampleRate() {
+        FintCacheEventLogger<String, Integer> eventLogger = new FintCacheEventLogger<>(
+                "testAlias",
+                FintCacheEventLoggingOptions.builder()
+                        .mode(FintCacheEventLoggingOptions.Mode.SAMPLED)
+                        .sampleRate(3L)
+                        .build()
+        );
+
+        logCreatedEvents(eventLogger, 7);
+
+        assertEquals(
+                List.of(
+                        "Cache entry in 'testAlias' with key='testKey0' created with value=0",
+                        "Cache entry in 'testAlias' with key='testKey3' created with value=3",
+                        "Cache entry in 'testAlias' with key='testKey6' created with value=6"
+                ),
+                getLoggedMessages()
+        );
+    }
+
+    @Test
+    void shouldLogAtMostMaxEventsPerSecond() {
+        FintCacheEventLogger<String, Integer> eventLogger = new FintCacheEventLogger<>(
+                "testAlias",
+                FintCacheEventLoggingOptions.builder()
+                        .mode(FintCacheEventLoggingOptions.Mode.RATE_LIMITED)
+                        .maxEventsPerSecond(2L)
+                        .build()
+        );
+
+        logCreatedEvents(eventLogger, 5);
+
+        assertEquals(
+                List.of(
+                        "Cache entry in 'testAlias' with key='testKey0' created with value=0",
+                        "Cache entry in 'testAlias' with key='testKey1' created with value=1"
+                ),
+                getLoggedMessages()
+        );
+    }
+
+    @Test
+    void shouldLogAggregatedEventCountsOnFlush() {
+        FintCacheEventLogger<String, Integer> eventLogger = new FintCacheEventLogger<>(
+                "testAlias",
+                FintCacheEventLoggingOptions.builder().mode(FintCacheEventLoggingOptions.Mode.AGGREGATED).build()
+        );
+        logCreatedEvents(eventLogger, 2);
+        eventLogger.onEvent(new FintCacheEvent<>(FintCacheEvent.EventType.UPDATED, "testKey0", 0, 1));
+        eventLogger.onEvent(new FintCacheEvent<>(FintCacheEvent.EventType.REMOVED, "testKey1", 1, null));
+        assertTrue(getLoggedMessages().isEmpty());
+
+        eventLogger.flush();
+        eventLogger.flush();
+
+        assertEquals(
+                List.of("Cache entries in 'testAlias' since last flush: created=2, updated=1, removed=1, expired=0, evicted=0"),
+                getLoggedMessages()
+        );
+    }
+
+    @Test
+    void shouldNotFormatEventsWhenInfoIsDisabled() {
+        this.logger.setLevel(Level.WARN);
+        AtomicInteger formatCount = new AtomicInteger();
+        Object value = new Object() {
+            @Override
+            public String toString() {
+                formatCount.incrementAndGet();
+                return "testValue";
+            }
+        };
+        FintCacheEventLogger<String, Object> eventLogger = new FintCacheEventLogger<>("testAlias");
+
+        eventLogger.onEvent(new FintCacheEvent<>(FintCacheEvent.EventType.CREATED, "testKey", null, value));
+
+        assertEquals(0, formatCount.get());
+        assertTrue(getLoggedMessages().isEmpty());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenSampleRateOrMaxEventsPerSecondIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new FintCacheEventLogger<>(
+                "testAlias",
+                FintCacheEventLoggingOptions.builder().mode(FintCacheEventLoggingOptions.Mode.SAMPLED).sampleRate(0L).build()
+        ));
+        assertThrows(IllegalArgumentException.class, () -> new FintCacheEventLogger<>(
+                "testAlias",
+                FintCacheEventLoggingOptions.builder().mode(FintCacheEventLoggingOptions.Mode.SAMPLED).sampleRate(-1L).build()
+        ));
+        assertThrows(IllegalArgumentException.class, () -> new FintCacheEventLogger<>(
+                "testAlias",
+                FintCacheEventLoggingOptions.builder().mode(FintCacheEventLoggingOptions.Mode.RATE_LIMITED).maxEventsPerSecond(-1L).build()
+        ));
+    }
+
+}
@@ -1,17 +1,40 @@
 package no.novari.cache;
 
+import no.novari.cache.exceptions.InvalidCacheSnapshotException;
 import no.novari.cache.exceptions.NoSuchCacheException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.util.unit.DataSize;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ActiveProfiles("test")
 @ExtendWith(SpringExtension.class)
@@ -57,4 +80,537 @@ public abstract class FintCacheManagerTest {
                 fintCacheManager.getCache("testAlias", String.class, Integer.class)
         );
     }
+
+    @Test
+    void shouldThrowExceptionWhenCacheHeapIsSizedByEntriesAndMemorySize() {
+        assertThrows(IllegalArgumentException.class, () ->
+                fintCacheManager.createCache(
+                        "testAlias",
+                        String.class,
+                        Integer.class,
+                        FintCacheOptions.builder().heapSize(10L).heapMemorySize(DataSize.ofMegabytes(1)).build()
+                )
+        );
+    }
+
+    @Test
+    void shouldInvalidateEntriesOnPeerCacheManagers() throws InterruptedException {
+        FintCacheLoopbackInvalidationTransport transport = new FintCacheLoopbackInvalidationTransport();
+        FintCacheOptions peerCacheOptions = FintCacheOptions.builder()
+                .timeToLive(Duration.ofMinutes(1))
+                .heapSize(10L)
+                .invalidation(FintCacheInvalidationOptions.builder()
+                        .transport(transport)
+                        .maxDelay(Duration.ofMillis(10))
+                        .build())
+                .build();
+        CountDownLatch firstInvalidation = new CountDownLatch(1);
+        CountDownLatch secondInvalidation = new CountDownLatch(2);
+
+        try (FintCacheManager peerCacheManager1 = createCacheManager(peerCacheOptions);
+             FintCacheManager peerCacheManager2 = createCacheManager(peerCacheOptions)) {
+            FintCache<String, Integer> peerCache1 = peerCacheManager1.createCache("testAlias", String.class, Integer.class);
+            FintCache<String, Integer> peerCache2 = peerCacheManager2.createCache("testAlias", String.class, Integer.class);
+            // Subscribed after the peers, so the loopback delivers to them first
+            transport.subscribe(invalidation -> {
+                firstInvalidation.countDown();
+                secondInvalidation.countDown();
+            });
+            peerCache2.put("testKey1", 1);
+            peerCache2.put("testKey2", 2);
+            assertTrue(firstInvalidation.await(5, TimeUnit.SECONDS));
+
+            peerCache1.put("testKey1", 10);
+            assertTrue(secondInvalidation.await(5, TimeUnit.SECONDS));
+
+            assertFalse(peerCache2.containsKey("testKey1"));
+            assertTrue(peerCache2.containsKey("testKey2"));
+            assertEquals(10, peerCache1.get("testKey1"));
+        }
+    }
+
+    @Test
+    void shouldNotPublishLoadedValuesAsInvalidations() throws InterruptedException {
+        FintCacheLoopbackInvalidationTransport transport = new FintCacheLoopbackInvalidationTransport();
+        FintCacheOptions peerCacheOptions = FintCacheOptions.builder()
+                .timeToLive(Duration.ofMinutes(1))
+                .heapSize(10L)
+                .invalidation(FintCacheInvalidationOptions.builder()
+                        .transport(transport)
+                        .maxDelay(Duration.ofMillis(10))
+                        .build())
+                .build();
+        List<Object> invalidatedKeys = new CopyOnWriteArrayList<>();
+        CountDownLatch firstInvalidation = new CountDownLatch(1);
+        CountDownLatch secondInvalidation = new CountDownLatch(2);
+
+        try (FintCacheManager peerCacheManager1 = createCacheManager(peerCacheOptions);
+             FintCacheManager peerCacheManager2 = createCacheManager(peerCacheOptions)) {
+            FintCache<String, Integer> peerCache1 = peerCacheManager1.createCache("testAlias", String.class, Integer.class);
+            FintCache<String, Integer> peerCache2 = peerCacheManager2.createCache("testAlias", String.class, Integer.class);
+            transport.subscribe(invalidation -> {
+                invalidatedKeys.addAll(invalidation.getKeys());
+                firstInvalidation.countDown();
+                secondInvalidation.countDown();
+            });
+            peerCache2.put("testKey1", 1);
+            assertTrue(firstInvalidation.await(5, TimeUnit.SECONDS));
+
+            peerCache1.getOrLoad("testKey1", key -> 1);
+            peerCache1.getAllOrLoad(List.of("testKey2"), keys -> Map.of("testKey2", 2));
+            peerCache1.put("testKey3", 3);
+            assertTrue(secondInvalidation.await(5, TimeUnit.SECONDS));
+
+            assertEquals(List.of("testKey1", "testKey3"), invalidatedKeys);
+            assertTrue(peerCache2.containsKey("testKey1"));
+        }
+    }
+
+    @Test
+    void shouldNotWriteBehindRemovalsAppliedFromPeerInvalidations() throws InterruptedException {
+        FintCacheLoopbackInvalidationTransport transport = new FintCacheLoopbackInvalidationTransport();
+        FintCacheTest.RecordingCacheWriter<String, Integer> writer1 = new FintCacheTest.RecordingCacheWriter<>(1);
+        FintCacheTest.RecordingCacheWriter<String, Integer> writer2 = new FintCacheTest.RecordingCacheWriter<>(1);
+        CountDownLatch firstInvalidation = new CountDownLatch(1);
+        CountDownLatch secondInvalidation = new CountDownLatch(2);
+
+        FintCacheManager peerCacheManager1 = createCacheManager(FintCacheOptions.builder().build());
+        FintCacheManager peerCacheManager2 = createCacheManager(FintCacheOptions.builder().build());
+        try {
+            FintCache<String, Integer> peerCache1 = peerCacheManager1.createCache(
+                    "testAlias", String.class, Integer.class, writeBehindWithInvalidation(transport, writer1)
+            );
+            FintCache<String, Integer> peerCache2 = peerCacheManager2.createCache(
+                    "testAlias", String.class, Integer.class, writeBehindWithInvalidation(transport, writer2)
+            );
+            transport.subscribe(invalidation -> {
+                firstInvalidation.countDown();
+                secondInvalidation.countDown();
+            });
+            peerCache1.put("testKey", 1);
+            assertTrue(firstInvalidation.await(5, TimeUnit.SECONDS));
+
+            peerCache2.put("testKey", 2);
+            assertTrue(secondInvalidation.await(5, TimeUnit.SECONDS));
+            assertFalse(peerCache1.containsKey("testKey"));
+        } finally {
+            peerCacheManager1.close();
+            peerCacheManager2.close();
+        }
+
+        assertTrue(writer1.deletedBatches.isEmpty());
+        assertTrue(writer2.deletedBatches.isEmpty());
+        assertEquals(List.of(Map.of("testKey", 1)), writer1.writtenBatches);
+        assertEquals(List.of(Map.of("testKey", 2)), writer2.writtenBatches);
+    }
+
+    private FintCacheOptions writeBehindWithInvalidation(
+            FintCacheInvalidationTransport transport,
+            FintCacheWriter<String, Integer> writer
+    ) {
+        return FintCacheOptions.builder()
+                .timeToLive(Duration.ofMinutes(1))
+                .heapSize(10L)
+                .writeBehind(FintCacheWriteBehindOptions.builder()
+                        .writer(writer)
+                        .maxWriteDelay(Duration.ofMinutes(1))
+                        .build())
+                .invalidation(FintCacheInvalidationOptions.builder()
+                        .transport(transport)
+                        .maxDelay(Duration.ofMillis(10))
+                        .build())
+                .build();
+    }
+
+    @Test
+    void shouldDeliverPendingBatchedEventsWhenCacheIsRemoved() {
+        FintCache<String, Integer> cache = fintCacheManager.createCache("testAlias", String.class, Integer.class);
+        List<List<FintCacheEvent<String, Integer>>> batches = new CopyOnWriteArrayList<>();
+        cache.addBatchEventListener(batches::add, FintCacheBatchEventListenerOptions.builder()
+                .maxDelay(Duration.ofMinutes(1))
+                .build());
+        cache.put("testKey", 1);
+
+        fintCacheManager.removeCache("testAlias");
+
+        assertEquals(
+                List.of(List.of(new FintCacheEvent<>(FintCacheEvent.EventType.CREATED, "testKey", null, 1))),
+                batches
+        );
+    }
+
+    @Test
+    void shouldDeliverPendingBatchedEventsWhenCacheManagerIsClosed() {
+        FintCacheManager cacheManager = createCacheManager(FintCacheOptions.builder().heapSize(10L).build());
+        List<List<FintCacheEvent<String, Integer>>> batches = new CopyOnWriteArrayList<>();
+        List<List<FintCacheEvent<Long, Integer>>> longKeyBatches = new CopyOnWriteArrayList<>();
+        try {
+            FintCache<String, Integer> cache = cacheManager.createCache("testAlias", String.class, Integer.class);
+            FintLongKeyCache<Integer> longKeyCache = cacheManager.createLongKeyCache("testLongKeyAlias", Integer.class);
+            FintCacheBatchEventListenerOptions listenerOptions = FintCacheBatchEventListenerOptions.builder()
+                    .maxDelay(Duration.ofMinutes(1))
+                    .build();
+            cache.addBatchEventListener(batches::add, listenerOptions);
+            longKeyCache.addBatchEventListener(longKeyBatches::add, listenerOptions);
+            cache.put("testKey", 1);
+            longKeyCache.put(1L, 2);
+        } finally {
+            cacheManager.close();
+        }
+
+        assertEquals(
+                List.of(List.of(new FintCacheEvent<>(FintCacheEvent.EventType.CREATED, "testKey", null, 1))),
+                batches
+        );
+        assertEquals(
+                List.of(List.of(new FintCacheEvent<>(FintCacheEvent.EventType.CREATED, 1L, null, 2))),
+                longKeyBatches
+        );
+    }
+
+    @Test
+    void shouldRestoreCacheEntriesFromSnapshot(@TempDir Path snapshotDirectory) {
+        Path snapshotFile = snapshotDirectory.resolve("testAlias.snapshot");
+        FintCache<String, Integer> cache = fintCacheManager.createCache("testAlias", String.class, Integer.class);
+        cache.put(Map.of("testKey1", 1, "testKey2", 2, "testKey3", 3));
+
+        long exportedEntries = fintCacheManager.exportSnapshot(
+                "testAlias", String.class, Integer.class, snapshotFile, stringSerializer, integerSerializer
+        );
+
+        try (FintCacheManager restoredCacheManager = createCacheManager(FintCacheOptions.builder()
+                .timeToLive(Duration.ofMinutes(1))
+                .heapSize(10L)
+                .build())) {
+            FintCache<String, Integer> restoredCache = restoredCacheManager.createCache("testAlias", String.class, Integer.class);
+            long importedEntries = restoredCacheManager.importSnapshot(
+                    "testAlias", String.class, Integer.class, snapshotFile, stringSerializer, integerSerializer
+            );
+
+            assertEquals(3, exportedEntries);
+            assertEquals(3, importedEntries);
+            assertEquals(
+                    Map.of("testKey1", 1, "testKey2", 2, "testKey3", 3),
+                    restoredCache.getAllPresent(List.of("testKey1", "testKey2", "testKey3"))
+            );
+        }
+    }
+
+    @Test
+    void shouldThrowExceptionWhenImportingTruncatedSnapshot(@TempDir Path snapshotDirectory) throws IOException {
+        Path snapshotFile = snapshotDirectory.resolve("testAlias.snapshot");
+        FintCache<String, Integer> cache = fintCacheManager.createCache("testAlias", String.class, Integer.class);
+        cache.put("testKey", 1);
+        fintCacheManager.exportSnapshot("testAlias", String.class, Integer.class, snapshotFile, stringSerializer, integerSerializer);
+        byte[] snapshot = Files.readAllBytes(snapshotFile);
+        Files.write(snapshotFile, Arrays.copyOf(snapshot, snapshot.length - 4));
+
+        assertThrows(InvalidCacheSnapshotException.class, () ->
+                fintCacheManager.importSnapshot("testAlias", String.class, Integer.class, snapshotFile, stringSerializer, integerSerializer)
+        );
+    }
+
+    @Test
+    void shouldNotImportAnyEntryFromSnapshotWithWrongEntryCount(@TempDir Path snapshotDirectory) throws IOException {
+        Path snapshotFile = snapshotDirectory.resolve("testAlias.snapshot");
+        FintCache<String, Integer> cache = fintCacheManager.createCache("testAlias", String.class, Integer.class);
+        cache.put(Map.of("testKey1", 1, "testKey2", 2));
+        fintCacheManager.exportSnapshot("testAlias", String.class, Integer.class, snapshotFile, stringSerializer, integerSerializer);
+        byte[] snapshot = Files.readAllBytes(snapshotFile);
+        ByteBuffer.wrap(snapshot).putLong(snapshot.length - Long.BYTES, 3);
+        Files.write(snapshotFile, snapshot);
+        cache.clear();
+
+        assertThrows(InvalidCacheSnapshotException.class, () ->
+                fintCacheManager.importSnapshot("testAlias", String.class, Integer.class, snapshotFile, stringSerializer, integerSerializer)
+        );
+        assertEquals(0, cache.getNumberOfEntries());
+    }
+
+    @Test
+    void shouldDeleteTemporaryFileWhenSnapshotExportFails(@TempDir Path snapshotDirectory) throws IOException {
+        Path snapshotFile = snapshotDirectory.resolve("testAlias.snapshot");
+        FintCache<String, Integer> cache = fintCacheManager.createCache("testAlias", String.class, Integer.class);
+        cache.put("testKey", 1);
+        FintCacheSerializer<Integer> failingSerializer = new FintCacheSerializer<>() {
+            @Override
+            public byte[] serialize(Integer object) {
+                throw new IllegalStateException("Serialization failed");
+            }
+
+            @Override
+            public Integer deserialize(byte[] bytes) {
+                return integerSerializer.deserialize(bytes);
+            }
+        };
+
+        assertThrows(IllegalStateException.class, () ->
+                fintCacheManager.exportSnapshot("testAlias", String.class, Integer.class, snapshotFile, stringSerializer, failingSerializer)
+        );
+        try (Stream<Path> files = Files.list(snapshotDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void shouldStoreAndRemoveEntriesInLongKeyCache() {
+        FintLongKeyCache<String> cache = fintCacheManager.createLongKeyCache("testAlias", String.class);
+        cache.put(1L, "testValue1");
+        cache.put(new long[]{2L, 3L}, List.of("testValue2", "testValue3"));
+        cache.remove(2L);
+
+        assertEquals("testValue1", fintCacheManager.getLongKeyCache("testAlias", String.class).get(1L));
+        assertEquals(List.of("testValue1", "testValue3"), cache.get(new long[]{1L, 2L, 3L}));
+        assertEquals(2, cache.getNumberOfEntries());
+        assertFalse(cache.containsKey(2L));
+    }
+
+    @Test
+    void shouldEvictEntriesFromLongKeyCacheWhenFull() {
+        FintLongKeyCache<Integer> cache = fintCacheManager.createLongKeyCache("testAlias", Integer.class);
+        List<FintCacheEvent.EventType> eventTypes = new CopyOnWriteArrayList<>();
+        cache.addEventListener(event -> eventTypes.add(event.getType()));
+        for (long key = 0; key < 15; key++) {
+            cache.put(key, (int) key);
+        }
+
+        assertEquals(10, cache.getNumberOfEntries());
+        assertEquals(10, cache.getAll().size());
+        assertEquals(5, eventTypes.stream().filter(FintCacheEvent.EventType.EVICTED::equals).count());
+        assertTrue(cache.containsKey(14L));
+    }
+
+    @Test
+    void shouldExpireLongKeyCacheEntries() throws InterruptedException {
+        FintLongKeyCache<Integer> cache = fintCacheManager.createLongKeyCache("testAlias", Integer.class);
+        cache.put(1L, 1, Duration.ofMillis(50));
+        cache.put(2L, 2);
+        Thread.sleep(100);
+
+        assertFalse(cache.containsKey(1L));
+        assertTrue(cache.containsKey(2L));
+        assertEquals(1, cache.getNumberOfEntries());
+    }
+
+    @Test
+    void shouldDeliverEventsOfConcurrentWritesToSameKeyOfLongKeyCacheInOrder() throws Exception {
+        FintLongKeyCache<Integer> cache = fintCacheManager.createLongKeyCache(
+                "testAlias",
+                Integer.class,
+                FintCacheOptions.builder().timeToLive(Duration.ofMinutes(1)).build()
+        );
+        List<FintCacheEvent<Long, Integer>> events = new CopyOnWriteArrayList<>();
+        cache.addEventListener(events::add);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                int thread = i;
+                futures.add(executorService.submit(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        if (j % 5 == 4) {
+                            cache.remove(1L);
+                        } else {
+                            cache.put(1L, Integer.valueOf(thread * 1000 + j));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        Integer currentValue = null;
+        for (FintCacheEvent<Long, Integer> event : events) {
+            assertEquals(currentValue, event.getOldValue());
+            assertEquals(event.getType() == FintCacheEvent.EventType.CREATED, currentValue == null);
+            currentValue = event.getNewValue();
+        }
+        assertEquals(Optional.ofNullable(currentValue), cache.getOptional(1L));
+    }
+
+    @Test
+    void shouldRejectNullValuesInLongKeyCache() {
+        FintLongKeyCache<String> cache = fintCacheManager.createLongKeyCache("testAlias", String.class);
+        cache.put(1L, "testValue1");
+        Map<Long, String> entries = new HashMap<>();
+        entries.put(3L, null);
+
+        assertThrows(NullPointerException.class, () -> cache.put(2L, null));
+        assertThrows(NullPointerException.class, () -> cache.put(2L, null, Duration.ofMinutes(1)));
+        assertThrows(NullPointerException.class, () -> cache.put(new long[]{2L, 3L}, (String) null));
+        assertThrows(NullPointerException.class, () -> cache.put(new long[]{2L, 3L}, Arrays.asList("testValue2", null)));
+        assertThrows(NullPointerException.class, () -> cache.put(entries));
+        assertThrows(NullPointerException.class, () -> cache.putIfAbsent(2L, null));
+        assertThrows(NullPointerException.class, () -> cache.replace(1L, "testValue1", null));
+        assertEquals(1, cache.getNumberOfEntries());
+        assertEquals("testValue1", cache.get(1L));
+        assertFalse(cache.containsKey(2L));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenLongKeyCacheHasOffHeapTier() {
+        assertThrows(IllegalArgumentException.class, () ->
+                fintCacheManager.createLongKeyCache(
+                        "testAlias",
+                        Integer.class,
+                        FintCacheOptions.builder().offHeapSize(DataSize.ofMegabytes(1)).build()
+                )
+        );
+    }
+
+    @Test
+    void shouldThrowExceptionWhenLongKeyCacheHasOptionsItDoesNotSupport() {
+        List<FintCacheOptions> unsupportedOptions = List.of(
+                FintCacheOptions.builder().heapMemorySize(DataSize.ofMegabytes(1)).build(),
+                FintCacheOptions.builder().timeToIdle(Duration.ofMinutes(1)).build(),
+                FintCacheOptions.builder().refreshAhead(FintCacheRefreshAheadOptions.builder().build()).build(),
+                FintCacheOptions.builder().internValues(true).build()
+        );
+
+        for (FintCacheOptions cacheOptions : unsupportedOptions) {
+            assertThrows(IllegalArgumentException.class, () ->
+                    fintCacheManager.createLongKeyCache("testAlias", Integer.class, cacheOptions)
+            );
+        }
+    }
+
+    @Test
+    void shouldCreateLongKeyCacheWhenDefaultHeapIsSizedByMemory() {
+        FintCacheManager cacheManager = createCacheManager(FintCacheOptions.builder()
+                .heapSize(10L)
+                .heapMemorySize(DataSize.ofMegabytes(1))
+                .build());
+        try {
+            FintLongKeyCache<Integer> cache = cacheManager.createLongKeyCache("testAlias", Integer.class);
+            cache.put(1L, 1);
+
+            assertEquals(1, cache.get(1L));
+        } finally {
+            cacheManager.close();
+        }
+    }
+
+    @Test
+    void shouldThrowExceptionWhenCacheAndLongKeyCacheShareAlias() {
+        fintCacheManager.createCache("testAlias1", String.class, Integer.class);
+        fintCacheManager.createLongKeyCache("testAlias2", Integer.class);
+
+        assertThrows(IllegalArgumentException.class, () ->
+                fintCacheManager.createLongKeyCache("testAlias1", Integer.class)
+        );
+        assertThrows(IllegalArgumentException.class, () ->
+                fintCacheManager.createCache("testAlias2", String.class, Integer.class)
+        );
+        fintCacheManager.removeCache("testAlias2");
+        fintCacheManager.createCache("testAlias2", String.class, Integer.class);
+    }
+
+    @Test
+    void shouldCreateAndPreloadDefinedCaches() {
+        Map<String, FintCacheProperties.CacheDefinition> cacheDefinitions = Map.of(
+                "testAlias1", new FintCacheProperties.CacheDefinition(
+                        String.class, Integer.class, Duration.ofMinutes(1), null, 5L, null, null, null, null, null, null
+                ),
+                "testAlias2", new FintCacheProperties.CacheDefinition(
+                        Long.class, String.class, null, null, null, null, null, null, null, null, null
+                )
+        );
+        FintCachePreloader<String, Integer> preloader = new FintCachePreloader<>() {
+            @Override
+            public String getAlias() {
+                return "testAlias1";
+            }
+
+            @Override
+            public Map<String, Integer> load() {
+                return Map.of("testKey1", 1, "testKey2", 2);
+            }
+        };
+
+        FintCacheDefinitions.createCaches(fintCacheManager, cacheDefinitions);
+        FintCacheDefinitions.preloadCaches(fintCacheManager, cacheDefinitions, List.of(preloader));
+
+        assertEquals(2, fintCacheManager.getCache("testAlias1", String.class, Integer.class).getNumberOfEntries());
+        assertEquals(1, fintCacheManager.getCache("testAlias1", String.class, Integer.class).get("testKey1"));
+        assertEquals(0, fintCacheManager.getCache("testAlias2", Long.class, String.class).getNumberOfEntries());
+    }
+
+    @Test
+    void shouldReportAllInvalidCacheDefinitions() {
+        Map<String, FintCacheProperties.CacheDefinition> cacheDefinitions = Map.of(
+                "testAlias1", new FintCacheProperties.CacheDefinition(
+                        String.class, null, null, null, null, null, null, null, null, null, null
+                ),
+                "testAlias2", new FintCacheProperties.CacheDefinition(
+                        String.class, Integer.class, null, null, 10L, DataSize.ofMegabytes(1), null, null, null, null, null
+                ),
+                "testAlias3", new FintCacheProperties.CacheDefinition(
+                        String.class, Integer.class, null, null, null, null, null, null, null, null, null
+                )
+        );
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                FintCacheDefinitions.createCaches(fintCacheManager, cacheDefinitions)
+        );
+
+        assertTrue(exception.getMessage().contains("'testAlias1'"));
+        assertTrue(exception.getMessage().contains("'testAlias2'"));
+        assertFalse(exception.getMessage().contains("'testAlias3'"));
+    }
+
+    @Test
+    void shouldReportMostAccessedKeysAsHotKeys() {
+        FintCache<String, Integer> cache = fintCacheManager.createCache(
+                "testAlias",
+                String.class,
+                Integer.class,
+                FintCacheOptions.builder()
+                        .hotKeys(FintCacheHotKeyOptions.builder().sampleRate(1).numberOfTopKeys(2).build())
+                        .build()
+        );
+        cache.put("hotKey", 1);
+        cache.put("warmKey", 2);
+        for (int i = 0; i < 100; i++) {
+            cache.getOptional("hotKey");
+        }
+        for (int i = 0; i < 50; i++) {
+            cache.getOptional("warmKey");
+        }
+        for (int i = 0; i < 20; i++) {
+            cache.getOptional("coldKey" + i);
+        }
+
+        List<FintCacheHotKey> hotKeys = fintCacheManager.getHotKeys().get("testAlias");
+
+        assertEquals(List.of("hotKey", "warmKey"), hotKeys.stream().map(FintCacheHotKey::key).toList());
+        assertTrue(hotKeys.getFirst().estimatedAccesses() >= 101);
+    }
+
+    private final FintCacheSerializer<String> stringSerializer = new FintCacheSerializer<>() {
+        @Override
+        public byte[] serialize(String object) {
+            return object.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String deserialize(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    private final FintCacheSerializer<Integer> integerSerializer = new FintCacheSerializer<>() {
+        @Override
+        public byte[] serialize(Integer object) {
+            return ByteBuffer.allocate(Integer.BYTES).putInt(object).array();
+        }
+
+        @Override
+        public Integer deserialize(byte[] bytes) {
+            return ByteBuffer.wrap(bytes).getInt();
+        }
+    };
 }
@@ -4,18 +4,31 @@ import no.novari.cache.exceptions.NoSuchCacheEntryException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
 import java.time.Duration;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static java.util.Arrays.asList;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -106,6 +119,137 @@ public abstract class FintCacheTest {
         assertTrue(getResult.containsAll(asList(1, 1, 5)));
     }
 
+    @Test
+    void shouldGetOnlyValuesOfPresentKeysByCollectionOfKeys() {
+        FintCache<String, Integer> cache = getFintCacheWithoutOptions();
+        cache.put("testKey1", 1);
+        cache.put("testKey3", 5);
+
+        List<Integer> getResult = cache.get(asList("testKey1", "testKey2", "testKey3"));
+
+        assertEquals(2, getResult.size());
+        assertTrue(getResult.containsAll(asList(1, 5)));
+    }
+
+    @Test
+    void shouldGetAllPresentEntriesByKey() {
+        FintCache<String, Integer> cache = getFintCacheWithoutOptions();
+        cache.put("testKey1", 1);
+        cache.put("testKey3", 5);
+
+        Map<String, Integer> getResult = cache.getAllPresent(asList("testKey1", "testKey2", "testKey3"));
+
+        assertEquals(Map.of("testKey1", 1, "testKey3", 5), getResult);
+    }
+
+    @Test
+    void shouldLookUpHitsAndMissingKeys() {
+        FintCache<String, Integer> cache = getFintCacheWithoutOptions();
+        cache.put("testKey1", 1);
+        cache.put("testKey3", 5);
+
+        FintCacheLookupResult<String, Integer> lookupResult = cache.lookup(Set.of("testKey1", "testKey2", "testKey3", "testKey4"));
+
+        assertEquals(Map.of("testKey1", 1, "testKey3", 5), lookupResult.getHits());
+        assertEquals(Set.of("testKey2", "testKey4"), lookupResult.getMissingKeys());
+    }
+
+    @Test
+    void shouldLoadAndCacheValueOfMissingKey() {
+        FintCache<String, Integer> cache = getFintCacheWithoutOptions();
+        cache.put("testKey1", 1);
+        AtomicInteger loaderCalls = new AtomicInteger();
+
+        assertEquals(1, cache.getOrLoad("testKey1", key -> loaderCalls.incrementAndGet()));
+        assertEquals(2, cache.getOrLoad("testKey2", key -> 2 + loaderCalls.getAndIncrement()));
+        assertEquals(2, cache.get("testKey2"));
+        assertEquals(1, loaderCalls.get());
+    }
+
+    @Test
+    void shouldShareSingleLoadBetweenConcurrentMissesOfSameKey() throws Exception {
+        FintCache<String, Integer> cache = getFintCacheWithoutOptions();
+        AtomicInteger loaderCalls = new AtomicInteger();
+        CountDownLatch loadReleased = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(executorService.submit(() -> cache.getOrLoad("testKey", key -> {
+                loaderCalls.incrementAndGet();
+                try {
+                    loadReleased.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return 1;
+            })));
+        }
+        Thread.sleep(100);
+        loadReleased.countDown();
+
+        for (Future<Integer> result : results) {
+            assertEquals(1, result.get(5, TimeUnit.SECONDS));
+        }
+        executorService.shutdown();
+        assertEquals(1, loaderCalls.get());
+    }
+
+    @Test
+    void shouldLoadMissingKeysInSingleBatch() {
+        FintCache<String, Integer> cache = getFintCacheWithoutOptions();
+        cache.put("testKey1", 1);
+        List<Set<String>> loaderCalls = new ArrayList<>();
+
+        Map<String, Integer> getResult = cache.getAllOrLoad(
+                asList("testKey1", "testKey2", "testKey3", "testKey4"),
+                keys -> {
+                    loaderCalls.add(keys);
+                    return Map.of("testKey2", 2, "testKey3", 3);
+                }
+        );
+
+        assertEquals(Map.of("testKey1", 1, "testKey2", 2, "testKey3", 3), getResult);
+        assertEquals(List.of(Set.of("testKey2", "testKey3", "testKey4")), loaderCalls);
+        assertEquals(3, cache.getNumberOfEntries());
+    }
+
+    @Test
+    void shouldNotLoadKeysFilledBeforeTheyAreClaimed() {
+        FintCache<String, Integer> cache = getFintCacheWithoutOptions();
+        AtomicBoolean firstLookup = new AtomicBoolean(true);
+        @SuppressWarnings("unchecked")
+        FintCache<String, Integer> racingCache = (FintCache<String, Integer>) Proxy.newProxyInstance(
+                FintCache.class.getClassLoader(),
+                new Class<?>[]{FintCache.class},
+                (proxy, method, args) -> {
+                    if (method.isDefault()) {
+                        return InvocationHandler.invokeDefault(proxy, method, args);
+                    }
+                    Object result = method.invoke(cache, args);
+                    // Another load fills the key right after the first lookup missed it
+                    if (method.getName().equals("getAllPresent") && firstLookup.getAndSet(false)) {
+                        cache.put("testKey1", 1);
+                    }
+                    return result;
+                }
+        );
+        List<Set<String>> loaderCalls = new ArrayList<>();
+
+        Map<String, Integer> getResult = new FintCacheSingleFlightLoader<String, Integer>().getAllOrLoad(
+                racingCache,
+                asList("testKey1", "testKey2"),
+                keys -> {
+                    loaderCalls.add(keys);
+                    return keys.stream().collect(Collectors.toMap(key -> key, key -> 10));
+                }
+        );
+
+        assertEquals(Map.of("testKey1", 1, "testKey2", 10), getResult);
+        assertEquals(List.of(Set.of("testKey2")), loaderCalls);
+        assertEquals(1, cache.get("testKey1"));
+    }
+
     @Test
     void shouldGetAllValues() {
         FintCache<String, Integer> cache = getFintCacheWithoutOptions();
@@ -119,6 +263,82 @@ public abstract class FintCacheTest {
         assertTrue(getResult.containsAll(asList(1, 1, 5)));
     }
 
+    @Test
+    void shouldStreamAllEntries() {
+        FintCache<String, Integer> cache = getFintCacheWithoutOptions();
+        cache.put(Map.of("testKey1", 1, "testKey2", 1, "testKey3", 5));
+
+        Map<String, Integer> streamResult = cache.stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        assertEquals(Map.of("testKey1", 1, "testKey2", 1, "testKey3", 5), streamResult);
+    }
+
+    @Test
+    void shouldIterateOverAllEntries() {
+        FintCache<String, Integer> cache = getFintCacheWithoutOptions();
+        cache.put(Map.of("testKey1", 1, "testKey2", 1, "testKey3", 5));
+
+        Map<String, Integer> iterationResult = new HashMap<>();
+        cache.forEach(iterationResult::put);
+
+        assertEquals(Map.of("testKey1", 1, "testKey2", 1, "testKey3", 5), iterationResult);
+    }
+
+    @Test
+    void shouldGetAllEntriesInBoundedPagesFromCursor() {
+        FintCache<String, Integer> cache = getFintCacheWithoutOptions();
+        cache.put(Map.of("testKey1", 1, "testKey2", 2, "testKey3", 3, "testKey4", 4, "testKey5", 5));
+
+        FintCacheCursor<String, Integer> cursor = cache.cursor(2);
+        List<Integer> pageSizes = new ArrayList<>();
+        Map<String, Integer> cursorResult = new HashMap<>();
+        while (cursor.hasNextPage()) {
+            List<Map.Entry<String, Integer>> page = cursor.nextPage();
+            pageSizes.add(page.size());
+            page.forEach(entry -> cursorResult.put(entry.getKey(), entry.getValue()));
+        }
+
+        assertEquals(List.of(2, 2, 1), pageSizes);
+        assertEquals(Map.of("testKey1", 1, "testKey2", 2, "testKey3", 3, "testKey4", 4, "testKey5", 5), cursorResult);
+    }
+
+    @Test
+    void shouldPutAndGetEntriesAsynchronously() throws Exception {
+        FintAsyncCache<String, Integer> asyncCache = getFintCacheWithoutOptions().async();
+
+        asyncCache.putAllAsync(Map.of("testKey1", 1, "testKey2", 2)).get(5, TimeUnit.SECONDS);
+        asyncCache.putAsync("testKey3", 3).get(5, TimeUnit.SECONDS);
+
+        assertEquals(Optional.of(1), asyncCache.getAsync("testKey1").get(5, TimeUnit.SECONDS));
+        assertEquals(
+                Map.of("testKey2", 2, "testKey3", 3),
+                asyncCache.getAllAsync(List.of("testKey2", "testKey3", "testKey4")).get(5, TimeUnit.SECONDS)
+        );
+        assertEquals(3, asyncCache.synchronous().getNumberOfEntries());
+    }
+
+    @Test
+    void shouldRunAsynchronousOperationsOnGivenExecutor() throws Exception {
+        ExecutorService executorService = Executors.newSingleThreadExecutor(
+                Thread.ofPlatform().name("test-cache-executor").factory()
+        );
+        try {
+            FintAsyncCache<String, Integer> asyncCache = getFintCacheWithoutOptions().async(executorService);
+            List<String> loaderThreadNames = new CopyOnWriteArrayList<>();
+
+            Integer value = asyncCache.getOrLoadAsync("testKey", key -> {
+                loaderThreadNames.add(Thread.currentThread().getName());
+                return 1;
+            }).get(5, TimeUnit.SECONDS);
+
+            assertEquals(1, value);
+            assertEquals(List.of("test-cache-executor"), loaderThreadNames);
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
     @Test
     void shouldGetAllDistinctValues() {
         FintCache<String, Integer> cache = getFintCacheWithoutOptions();
@@ -132,6 +352,48 @@ public abstract class FintCacheTest {
         assertTrue(getResult.containsAll(asList(1, 5)));
     }
 
+    @Test
+    void shouldGetAllDistinctValuesFromIndexedCache() {
+        FintCache<String, Integer> cache = getFintCacheWithDistinctValueIndex();
+        cache.put(asList("testKey1", "testKey2", "testKey3"), 1);
+        cache.put("testKey4", 5);
+        cache.put("testKey5", 7);
+
+        cache.put("testKey4", 1);
+        cache.remove("testKey5");
+
+        List<Integer> getResult = cache.getAllDistinct();
+
+        assertEquals(1, getResult.size());
+        assertTrue(getResult.contains(1));
+    }
+
+    @Test
+    void shouldGetNumberOfDistinctValuesFromIndexedCache() {
+        FintCache<String, Integer> cache = getFintCacheWithDistinctValueIndex();
+        cache.put(asList("testKey1", "testKey2"), 1);
+        cache.put("testKey3", 5);
+        assertEquals(2, cache.getNumberOfDistinctValues());
+
+        cache.remove("testKey1");
+        assertEquals(2, cache.getNumberOfDistinctValues());
+
+        cache.remove("testKey2");
+        assertEquals(1, cache.getNumberOfDistinctValues());
+
+        cache.clear();
+        assertEquals(0, cache.getNumberOfDistinctValues());
+    }
+
+    private FintCache<String, Integer> getFintCacheWithDistinctValueIndex() {
+        return fintCacheManager.createCache(
+                "testAlias",
+                String.class,
+                Integer.class,
+                FintCacheOptions.builder().indexDistinctValues(true).build()
+        );
+    }
+
     @Test
     void shouldPutValueForSingleKey() {
         FintCache<String, Integer> cache = getFintCacheWithoutOptions();
@@ -160,6 +422,100 @@ public abstract class FintCacheTest {
         assertEquals(3, cache.get("testKey2"));
     }
 
+    @Test
+    void shouldPutValueOnlyIfKeyIsAbsent() {
+        FintCache<String, Integer> cache = getFintCacheWithoutOptions();
+
+        assertNull(cache.putIfAbsent("testKey", 1));
+        assertEquals(1, cache.putIfAbsent("testKey", 2));
+        assertEquals(1, cache.get("testKey"));
+        assertEquals(1, cache.getNumberOfEntries());
+    }
+
+    @Test
+    void shouldReplaceValueOnlyIfCurrentValueMatches() {
+        FintCache<String, Integer> cache = getFintCacheWithoutOptions();
+        cache.put("testKey", 1);
+
+        assertFalse(cache.replace("testKey", 2, 3));
+        assertTrue(cache.replace("testKey", 1, 3));
+        assertFalse(cache.replace("missingKey", 1, 3));
+        assertEquals(3, cache.get("testKey"));
+        assertFalse(cache.containsKey("missingKey"));
+    }
+
+    @Test
+    void shouldComputeAndRemoveEntry() {
+        FintCache<String, Integer> cache = getFintCacheWithoutOptions();
+
+        assertEquals(1, cache.compute("testKey", (key, value) -> value == null ? 1 : value + 1));
+        assertEquals(2, cache.compute("testKey", (key, value) -> value == null ? 1 : value + 1));
+        assertNull(cache.compute("testKey", (key, value) -> null));
+        assertFalse(cache.containsKey("testKey"));
+        assertEquals(0, cache.getNumberOfEntries());
+    }
+
+    @Test
+    void shouldNotLoseConcurrentMerges() throws Exception {
+        FintCache<String, Integer> cache = getFintCacheWithoutOptions();
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executorService.submit(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        cache.merge("testKey" + j % 2, 1, Integer::sum);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(4000, cache.get("testKey0"));
+        assertEquals(4000, cache.get("testKey1"));
+    }
+
+    @Test
+    void shouldDeliverEventsOfConcurrentWritesToSameKeyInOrder() throws Exception {
+        FintCache<String, Integer> cache = getFintCacheWithDistinctValueIndex();
+        List<FintCacheEvent<String, Integer>> events = new CopyOnWriteArrayList<>();
+        cache.addEventListener(events::add);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                int thread = i;
+                futures.add(executorService.submit(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        if (j % 5 == 4) {
+                            cache.remove("testKey");
+                        } else {
+                            cache.put("testKey", thread * 1000 + j);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        Integer currentValue = null;
+        for (FintCacheEvent<String, Integer> event : events) {
+            assertEquals(currentValue, event.getOldValue());
+            assertEquals(event.getType() == FintCacheEvent.EventType.CREATED, currentValue == null);
+            currentValue = event.getNewValue();
+        }
+        assertEquals(Optional.ofNullable(currentValue), cache.getOptional("testKey"));
+        assertEquals(currentValue == null ? 0 : 1, cache.getNumberOfDistinctValues());
+    }
+
     @Test
     void shouldRemoveEntryBySingleKey() {
         FintCache<String, Integer> cache = getFintCacheWithoutOptions();
@@ -193,6 +549,29 @@ public abstract class FintCacheTest {
         assertEquals(3, cache.getNumberOfEntries());
     }
 
+    @Test
+    void shouldNotCountUpdatedEntriesAsNewEntries() {
+        FintCache<String, Integer> cache = getFintCacheWithoutOptions();
+        cache.put("testKey1", 1);
+        cache.put("testKey1", 2);
+        cache.put(Map.of("testKey1", 3, "testKey2", 4));
+
+        assertEquals(2, cache.getNumberOfEntries());
+    }
+
+    @Test
+    void shouldGetNumberOfEntriesFromParallelCacheInstanceWithSameAlias() {
+        FintCache<String, Integer> cache1 = getFintCacheWithoutOptions();
+        cache1.put("testKey1", 1);
+        cache1.put("testKey2", 2);
+
+        FintCache<String, Integer> cache2 = fintCacheManager.getCache("testAlias", String.class, Integer.class);
+        cache2.remove("testKey1");
+
+        assertEquals(1, cache1.getNumberOfEntries());
+        assertEquals(1, cache2.getNumberOfEntries());
+    }
+
     @Test
     void shouldGetNumberOfDistinctValues() {
         FintCache<String, Integer> cache = getFintCacheWithoutOptions();
@@ -295,6 +674,351 @@ public abstract class FintCacheTest {
         assertEquals(new FintCacheEvent<>(FintCacheEvent.EventType.REMOVED, "testKey", 1, null), observer.emittedEvents.getFirst());
     }
 
+    @Test
+    void shouldRefreshEntryReadAfterRefreshAheadThreshold() throws InterruptedException {
+        AtomicInteger loadCount = new AtomicInteger();
+        FintCache<String, Integer> cache = fintCacheManager.createCache(
+                "testAlias",
+                String.class,
+                Integer.class,
+                FintCacheOptions.builder()
+                        .timeToLive(Duration.of(2, ChronoUnit.SECONDS))
+                        .refreshAhead(FintCacheRefreshAheadOptions.builder()
+                                .threshold(0.5)
+                                .build())
+                        .build(),
+                key -> 10 + loadCount.incrementAndGet()
+        );
+        cache.put("testKey", 1);
+        CacheEventObserver<String, Integer> observer = new CacheEventObserver<>(1);
+        cache.addEventListener(createEventListener(observer));
+
+        assertEquals(1, cache.get("testKey"));
+        assertTrue(observer.emittedEvents.isEmpty());
+        Thread.sleep(1100);
+
+        assertEquals(1, cache.get("testKey"));
+        boolean awaitResult = observer.countDownLatch.await(5, TimeUnit.SECONDS);
+
+        assertTrue(awaitResult);
+        assertEquals(new FintCacheEvent<>(FintCacheEvent.EventType.UPDATED, "testKey", 1, 11, false, true), observer.emittedEvents.getFirst());
+        assertEquals(11, cache.get("testKey"));
+        assertEquals(1, loadCount.get());
+    }
+
+    @Test
+    void shouldRefreshEntryAfterThresholdOfItsOwnTimeToLive() throws InterruptedException {
+        AtomicInteger loadCount = new AtomicInteger();
+        FintCache<String, Integer> cache = fintCacheManager.createCache(
+                "testAlias",
+                String.class,
+                Integer.class,
+                FintCacheOptions.builder()
+                        .timeToLive(Duration.of(1, ChronoUnit.HOURS))
+                        .refreshAhead(FintCacheRefreshAheadOptions.builder()
+                                .threshold(0.5)
+                                .build())
+                        .build(),
+                key -> 10 + loadCount.incrementAndGet()
+        );
+        cache.put("testKey1", 1, Duration.of(2, ChronoUnit.SECONDS));
+        cache.put("testKey2", 2);
+        CacheEventObserver<String, Integer> observer = new CacheEventObserver<>(1);
+        cache.addEventListener(createEventListener(observer));
+        Thread.sleep(1100);
+
+        assertEquals(2, cache.get("testKey2"));
+        assertEquals(1, cache.get("testKey1"));
+        boolean awaitResult = observer.countDownLatch.await(5, TimeUnit.SECONDS);
+
+        assertTrue(awaitResult);
+        assertEquals(new FintCacheEvent<>(FintCacheEvent.EventType.UPDATED, "testKey1", 1, 11, false, true), observer.emittedEvents.getFirst());
+        assertEquals(1, observer.emittedEvents.size());
+        assertEquals(1, loadCount.get());
+        Thread.sleep(2100);
+
+        assertTrue(cache.getOptional("testKey1").isEmpty());
+        assertEquals(2, cache.get("testKey2"));
+    }
+
+    @Test
+    void shouldRejectRefreshAheadOptionsWithoutLoader() {
+        assertThrows(IllegalArgumentException.class, () -> fintCacheManager.createCache(
+                "testAlias",
+                String.class,
+                Integer.class,
+                FintCacheOptions.builder()
+                        .refreshAhead(FintCacheRefreshAheadOptions.builder().build())
+                        .build()
+        ));
+    }
+
+    @Test
+    void shouldWriteCoalescedEntriesBehindWhenBatchIsFull() throws InterruptedException {
+        RecordingCacheWriter<String, Integer> writer = new RecordingCacheWriter<>(1);
+        FintCache<String, Integer> cache = fintCacheManager.createCache(
+                "testAlias",
+                String.class,
+                Integer.class,
+                FintCacheOptions.builder()
+                        .writeBehind(FintCacheWriteBehindOptions.builder()
+                                .writer(writer)
+                                .batchSize(2)
+                                .maxWriteDelay(Duration.ofMinutes(1))
+                                .build())
+                        .build()
+        );
+
+        cache.put("testKey1", 1);
+        cache.put("testKey1", 2);
+        assertTrue(writer.writtenBatches.isEmpty());
+        cache.put("testKey2", 3);
+        boolean awaitResult = writer.countDownLatch.await(5, TimeUnit.SECONDS);
+
+        assertTrue(awaitResult);
+        assertEquals(List.of(Map.of("testKey1", 2, "testKey2", 3)), writer.writtenBatches);
+        assertTrue(writer.deletedBatches.isEmpty());
+    }
+
+    @Test
+    void shouldWriteRemovalBehindAfterMaxWriteDelay() throws InterruptedException {
+        RecordingCacheWriter<String, Integer> writer = new RecordingCacheWriter<>(1);
+        FintCache<String, Integer> cache = fintCacheManager.createCache(
+                "testAlias",
+                String.class,
+                Integer.class,
+                FintCacheOptions.builder()
+                        .writeBehind(FintCacheWriteBehindOptions.builder()
+                                .writer(writer)
+                                .maxWriteDelay(Duration.ofMillis(100))
+                                .build())
+                        .build()
+        );
+
+        cache.put("testKey", 1);
+        cache.remove("testKey");
+        boolean awaitResult = writer.countDownLatch.await(5, TimeUnit.SECONDS);
+
+        assertTrue(awaitResult);
+        assertTrue(writer.writtenBatches.isEmpty());
+        assertEquals(List.of(Set.of("testKey")), writer.deletedBatches);
+    }
+
+    @Test
+    void shouldOnlyRetryFailedRemovalsOfWriteBehindBatchAfterRetryDelay() {
+        AtomicInteger remainingDeleteFailures = new AtomicInteger(1);
+        RecordingCacheWriter<String, Integer> writer = new RecordingCacheWriter<>(0) {
+            @Override
+            public void deleteAll(Set<String> keys) {
+                if (remainingDeleteFailures.getAndDecrement() > 0) {
+                    throw new IllegalStateException("Delete failed");
+                }
+                super.deleteAll(keys);
+            }
+        };
+        FintCacheWriteBehind<String, Integer> writeBehind = new FintCacheWriteBehind<>(
+                "testAlias",
+                FintCacheWriteBehindOptions.builder()
+                        .writer(writer)
+                        .maxWriteDelay(Duration.ofMinutes(1))
+                        .build()
+        );
+        writeBehind.onEvent(new FintCacheEvent<>(FintCacheEvent.EventType.CREATED, "testKey1", null, 1));
+        writeBehind.onEvent(new FintCacheEvent<>(FintCacheEvent.EventType.REMOVED, "testKey2", 2, null));
+
+        writeBehind.flush();
+        assertEquals(1, writeBehind.getFailedBatches());
+        assertEquals(1, writeBehind.getQueueSize());
+
+        writeBehind.flushIfDue();
+        assertEquals(1, writeBehind.getQueueSize());
+
+        writeBehind.flush();
+        assertEquals(0, writeBehind.getQueueSize());
+        assertEquals(List.of(Map.of("testKey1", 1)), writer.writtenBatches);
+        assertEquals(List.of(Set.of("testKey2")), writer.deletedBatches);
+    }
+
+    protected static class RecordingCacheWriter<K, V> implements FintCacheWriter<K, V> {
+        final CountDownLatch countDownLatch;
+        final List<Map<K, V>> writtenBatches = new CopyOnWriteArrayList<>();
+        final List<Set<K>> deletedBatches = new CopyOnWriteArrayList<>();
+
+        public RecordingCacheWriter(int batchesToWaitFor) {
+            this.countDownLatch = new CountDownLatch(batchesToWaitFor);
+        }
+
+        @Override
+        public void writeAll(Map<K, V> entries) {
+            this.writtenBatches.add(Map.copyOf(entries));
+            countDownLatch.countDown();
+        }
+
+        @Override
+        public void deleteAll(Set<K> keys) {
+            this.deletedBatches.add(Set.copyOf(keys));
+            countDownLatch.countDown();
+        }
+    }
+
+    @Test
+    void shouldExpireEntryAfterItsOwnTimeToLive() throws InterruptedException {
+        FintCache<String, Integer> cache = getFintCacheWithoutOptions();
+        cache.put("testKey1", 1, Duration.of(50, ChronoUnit.MILLIS));
+        cache.put("testKey2", 2);
+
+        Thread.sleep(100);
+
+        assertTrue(cache.getOptional("testKey1").isEmpty());
+        assertEquals(Optional.of(2), cache.getOptional("testKey2"));
+    }
+
+    @Test
+    void shouldExpireEntryThatHasNotBeenReadWithinTimeToIdle() throws InterruptedException {
+        FintCache<String, Integer> cache = fintCacheManager.createCache(
+                "testAlias",
+                String.class,
+                Integer.class,
+                FintCacheOptions.builder().timeToIdle(Duration.ofSeconds(1)).build()
+        );
+        cache.put("testKey1", 1);
+        cache.put("testKey2", 2);
+
+        long deadline = System.nanoTime() + Duration.ofMillis(1500).toNanos();
+        while (System.nanoTime() < deadline) {
+            assertEquals(Optional.of(1), cache.getOptional("testKey1"));
+            Thread.sleep(100);
+        }
+
+        assertEquals(Optional.of(1), cache.getOptional("testKey1"));
+        assertTrue(cache.getOptional("testKey2").isEmpty());
+    }
+
+    @Test
+    void shouldExpireEntryAfterTimeToLiveWhenReadWithinTimeToIdle() throws InterruptedException {
+        FintCache<String, Integer> cache = fintCacheManager.createCache(
+                "testAlias",
+                String.class,
+                Integer.class,
+                FintCacheOptions.builder()
+                        .timeToLive(Duration.ofSeconds(1))
+                        .timeToIdle(Duration.ofMillis(800))
+                        .build()
+        );
+        cache.put("testKey", 1);
+        assertEquals(Optional.of(1), cache.getOptional("testKey"));
+
+        long deadline = System.nanoTime() + Duration.ofMillis(1500).toNanos();
+        while (System.nanoTime() < deadline) {
+            cache.getOptional("testKey");
+            Thread.sleep(100);
+        }
+
+        assertTrue(cache.getOptional("testKey").isEmpty());
+    }
+
+    @Test
+    void shouldEstimateRetainedBytesInCacheInfo() {
+        FintCache<String, String> cache = fintCacheManager.createCache("testAlias", String.class, String.class);
+        assertEquals(0, cache.getInfo(true).getEstimatedRetainedBytes());
+
+        cache.put("testKey1", "a");
+        long smallEntryEstimate = cache.getInfo(true).getEstimatedRetainedBytes();
+        cache.put("testKey2", "a".repeat(10_000));
+        FintCacheInfo cacheInfo = cache.getInfo(true);
+
+        assertEquals("testAlias", cacheInfo.getAlias());
+        assertEquals(2, cacheInfo.getNumberOfEntries());
+        assertTrue(smallEntryEstimate > 0);
+        assertTrue(cacheInfo.getEstimatedRetainedBytes() > 10_000);
+    }
+
+    @Test
+    void shouldOnlyEstimateRetainedBytesInCacheInfoWhenAsked() {
+        FintCache<String, String> cache = fintCacheManager.createCache("testAlias", String.class, String.class);
+        cache.put("testKey", "testValue");
+
+        FintCacheInfo cacheInfo = cache.getInfo();
+
+        assertEquals(1, cacheInfo.getNumberOfEntries());
+        assertNull(cacheInfo.getEstimatedRetainedBytes());
+    }
+
+    @Test
+    void shouldStoreEqualValuesOnceWhenInterningValues() {
+        FintCache<String, String> cache = getFintCacheWithInternedValues();
+        String value = new String("testValue");
+        cache.put("testKey1", value);
+        cache.put("testKey2", new String("testValue"));
+        cache.put(Map.of(
+                "testKey3", new String("testValue"),
+                "testKey4", new String("otherValue"),
+                "testKey5", new String("otherValue")
+        ));
+
+        assertSame(value, cache.get("testKey2"));
+        assertSame(value, cache.get("testKey3"));
+        assertSame(cache.get("testKey4"), cache.get("testKey5"));
+        assertEquals(2, cache.getNumberOfDistinctValues());
+    }
+
+    @Test
+    void shouldReadOneInstanceOfEqualValuesPutConcurrently() throws Exception {
+        FintCache<String, String> cache = getFintCacheWithInternedValues();
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                int thread = i;
+                futures.add(executorService.submit(() -> {
+                    for (int j = 0; j < 100; j++) {
+                        cache.put("testKey" + thread + "-" + j, new String("testValue" + j));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        for (int j = 0; j < 100; j++) {
+            String value = cache.get("testKey0-" + j);
+            for (int i = 1; i < 8; i++) {
+                assertSame(value, cache.get("testKey" + i + "-" + j));
+            }
+            assertSame(value, cache.get(List.of("testKey" + j % 8 + "-" + j)).getFirst());
+        }
+        Map<String, String> canonicalValues = new HashMap<>();
+        cache.getAll().forEach(value -> assertSame(canonicalValues.computeIfAbsent(value, v -> value), value));
+        cache.stream().forEach(entry -> assertSame(canonicalValues.get(entry.getValue()), entry.getValue()));
+        cache.forEach((key, value) -> assertSame(canonicalValues.get(value), value));
+        assertEquals(100, canonicalValues.size());
+        assertEquals(100, cache.getNumberOfDistinctValues());
+    }
+
+    @Test
+    void shouldReleaseInternedValueWhenLastKeyIsRemoved() {
+        FintCache<String, String> cache = getFintCacheWithInternedValues();
+        cache.put("testKey1", new String("testValue"));
+        cache.remove("testKey1");
+        String value = new String("testValue");
+
+        cache.put("testKey2", value);
+
+        assertSame(value, cache.get("testKey2"));
+    }
+
+    private FintCache<String, String> getFintCacheWithInternedValues() {
+        return fintCacheManager.createCache(
+                "testAlias",
+                String.class,
+                String.class,
+                FintCacheOptions.builder().internValues(true).build()
+        );
+    }
+
     @Test
     void shouldNotifyEventListenerWhenEntryIsExpired() throws InterruptedException {
         FintCache<String, Integer> cache = fintCacheManager.createCache(
@@ -338,5 +1062,112 @@ public abstract class FintCacheTest {
         assertEquals(FintCacheEvent.EventType.EVICTED, observer.emittedEvents.get(1).getType());
     }
 
+    @Test
+    void shouldNotifyAsynchronousEventListenerOnGivenExecutor() throws InterruptedException {
+        FintCache<String, Integer> cache = getFintCacheWithoutOptions();
+        CacheEventObserver<String, Integer> observer = new CacheEventObserver<>(1);
+        List<String> listenerThreadNames = new ArrayList<>();
+        cache.addEventListener(
+                event -> {
+                    listenerThreadNames.add(Thread.currentThread().getName());
+                    observer.consume(event);
+                },
+                FintCacheEventListenerOptions.builder()
+                        .asynchronous(true)
+                        .ordered(false)
+                        .executor(Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "testListenerThread")))
+                        .build()
+        );
+
+        cache.put("testKey", 1);
+        boolean awaitResult = observer.countDownLatch.await(5, TimeUnit.SECONDS);
+
+        assertTrue(awaitResult);
+        assertEquals(new FintCacheEvent<>(FintCacheEvent.EventType.CREATED, "testKey", null, 1), observer.emittedEvents.getFirst());
+        assertEquals(List.of("testListenerThread"), listenerThreadNames);
+    }
+
+    @Test
+    void shouldOnlyNotifyEventListenerOfRegisteredEventTypes() throws InterruptedException {
+        FintCache<String, Integer> cache = getFintCacheWithoutOptions();
+        CacheEventObserver<String, Integer> observer = new CacheEventObserver<>(1);
+        cache.addEventListener(
+                createEventListener(observer),
+                FintCacheEventListenerOptions.builder()
+                        .eventTypes(Set.of(FintCacheEvent.EventType.REMOVED))
+                        .build()
+        );
+
+        cache.put("testKey", 1);
+        cache.put("testKey", 2);
+        cache.remove("testKey");
+        observer.countDownLatch.await();
+
+        assertEquals(1, observer.emittedEvents.size());
+        assertEquals(new FintCacheEvent<>(FintCacheEvent.EventType.REMOVED, "testKey", 2, null), observer.emittedEvents.getFirst());
+    }
+
+    @Test
+    void shouldNotNotifyEventListenerAfterItHasBeenRemoved() {
+        FintCache<String, Integer> cache = getFintCacheWithoutOptions();
+        CacheEventObserver<String, Integer> observer = new CacheEventObserver<>(1);
+        FintCacheEventListener<String, Integer> listener = createEventListener(observer);
+        cache.addEventListener(listener);
+
+        cache.removeEventListener(listener);
+        cache.put("testKey", 1);
+
+        assertTrue(observer.emittedEvents.isEmpty());
+    }
+
+    @Test
+    void shouldDeliverEventsInBatchesOfGivenSize() {
+        FintCache<String, Integer> cache = getFintCacheWithoutOptions();
+        List<List<FintCacheEvent<String, Integer>>> batches = new CopyOnWriteArrayList<>();
+        cache.addBatchEventListener(batches::add, FintCacheBatchEventListenerOptions.builder()
+                .batchSize(3)
+                .maxDelay(Duration.ofMinutes(1))
+                .executor(Runnable::run)
+                .build());
+
+        for (int i = 0; i < 6; i++) {
+            cache.put("testKey" + i, i);
+        }
+
+        assertEquals(2, batches.size());
+        assertEquals(List.of(3, 3), batches.stream().map(List::size).toList());
+        assertEquals(
+                new FintCacheEvent<>(FintCacheEvent.EventType.CREATED, "testKey0", null, 0),
+                batches.getFirst().getFirst()
+        );
+    }
+
+    @Test
+    void shouldCoalesceBatchedEventsPerKey() {
+        FintCache<String, Integer> cache = getFintCacheWithoutOptions();
+        List<List<FintCacheEvent<String, Integer>>> batches = new CopyOnWriteArrayList<>();
+        FintCacheBatchEventListener<String, Integer> listener = batches::add;
+        cache.put("testKey3", 3);
+        cache.addBatchEventListener(listener, FintCacheBatchEventListenerOptions.builder()
+                .maxDelay(Duration.ofMinutes(1))
+                .coalescing(true)
+                .build());
+
+        cache.put("testKey1", 1);
+        cache.put("testKey1", 2);
+        cache.put("testKey2", 1);
+        cache.remove("testKey2");
+        cache.put("testKey3", 4);
+        cache.remove("testKey3");
+        cache.removeBatchEventListener(listener);
+
+        assertEquals(
+                List.of(List.of(
+                        new FintCacheEvent<>(FintCacheEvent.EventType.CREATED, "testKey1", null, 2),
+                        new FintCacheEvent<>(FintCacheEvent.EventType.REMOVED, "testKey3", 3, null)
+                )),
+                batches
+        );
+    }
 
 }
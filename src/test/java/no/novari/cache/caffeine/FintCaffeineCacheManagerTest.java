@@ -0,0 +1,71 @@
+package no.novari.cache.caffeine;
+
+import no.novari.cache.FintCache;
+import no.novari.cache.FintCacheManager;
+import no.novari.cache.FintCacheManagerTest;
+import no.novari.cache.FintCacheOptions;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FintCaffeineCacheManagerTest extends FintCacheManagerTest {
+
+    @Override
+    protected FintCacheManager createCacheManager(FintCacheOptions defaultCacheOptions) {
+        return new FintCaffeineCacheManager(defaultCacheOptions);
+    }
+
+    @Test
+    void shouldCreateFintCaffeineCache() {
+        assertInstanceOf(FintCaffeineCache.class, fintCacheManager.createCache("testCache", String.class, Integer.class));
+    }
+
+    @Test
+    void shouldThrowExceptionWhenGettingCacheWithDifferentValueType() {
+        fintCacheManager.createCache("testAlias", String.class, Integer.class);
+        assertThrows(IllegalArgumentException.class, () ->
+                fintCacheManager.getCache("testAlias", String.class, Long.class)
+        );
+    }
+
+    @Test
+    void shouldThrowExceptionWhenCreatingCacheWithOffHeapTier() {
+        assertThrows(IllegalArgumentException.class, () -> fintCacheManager.createCache(
+                "testAlias",
+                String.class,
+                Integer.class,
+                FintCacheOptions.builder().offHeapSize(DataSize.ofMegabytes(1)).build()
+        ));
+    }
+
+    @Test
+    void shouldBoundHeapMemorySizeByGivenWeigher() {
+        FintCache<String, Integer> cache = fintCacheManager.createCache(
+                "testAlias",
+                String.class,
+                Integer.class,
+                FintCacheOptions.builder()
+                        .heapMemorySize(DataSize.ofBytes(300))
+                        .weigher((String key, Integer value) -> 100)
+                        .build()
+        );
+        for (int i = 0; i < 10; i++) {
+            cache.put("testKey" + i, i);
+        }
+
+        assertEquals(3, cache.getNumberOfEntries());
+    }
+
+    @Test
+    void shouldThrowExceptionWhenWeigherIsGivenWithoutHeapMemorySize() {
+        assertThrows(IllegalArgumentException.class, () -> fintCacheManager.createCache(
+                "testAlias",
+                String.class,
+                Integer.class,
+                FintCacheOptions.builder().weigher((String key, Integer value) -> 100).build()
+        ));
+    }
+}
@@ -0,0 +1,42 @@
+package no.novari.cache.caffeine;
+
+import no.novari.cache.FintCache;
+import no.novari.cache.FintCacheEventListener;
+import no.novari.cache.FintCacheManager;
+import no.novari.cache.FintCacheOptions;
+import no.novari.cache.FintCacheTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FintCaffeineCacheTest extends FintCacheTest {
+
+    @Override
+    protected FintCacheManager createCacheManager(FintCacheOptions defaultFintCacheOptions) {
+        return new FintCaffeineCacheManager(defaultFintCacheOptions);
+    }
+
+    @Override
+    protected <K, V> FintCacheEventListener<K, V> createEventListener(CacheEventObserver<K, V> observer) {
+        return observer::consume;
+    }
+
+    @Test
+    void shouldEvictEntriesWhenHeapMemorySizeIsExceeded() {
+        FintCache<String, String> cache = fintCacheManager.createCache(
+                "testAlias",
+                String.class,
+                String.class,
+                FintCacheOptions.builder().heapMemorySize(DataSize.ofKilobytes(8)).build()
+        );
+
+        for (int i = 0; i < 10; i++) {
+            cache.put("testKey" + i, "a".repeat(2_000));
+        }
+
+        assertTrue(cache.getNumberOfEntries() > 0);
+        assertTrue(cache.getNumberOfEntries() < 10);
+    }
+
+}
@@ -1,11 +1,27 @@
 package no.novari.cache.ehcache;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import no.novari.cache.FintCache;
 import no.novari.cache.FintCacheManager;
 import no.novari.cache.FintCacheManagerTest;
 import no.novari.cache.FintCacheOptions;
+import no.novari.cache.FintCacheWriteBehindOptions;
+import no.novari.cache.FintCacheWriter;
 import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class FintEhCacheManagerTest extends FintCacheManagerTest {
 
@@ -23,4 +39,107 @@ class FintEhCacheManagerTest extends FintCacheManagerTest {
     void shouldCreateFintEhCache() {
         assertInstanceOf(FintEhCache.class, fintCacheManager.createCache("testCache", String.class, Integer.class));
     }
+
+    @Test
+    void shouldBoundHeapByMemorySize() {
+        FintCache<String, String> cache = fintCacheManager.createCache(
+                "testAlias",
+                String.class,
+                String.class,
+                FintCacheOptions.builder()
+                        .timeToLive(Duration.ofMinutes(1))
+                        .heapMemorySize(DataSize.ofKilobytes(100))
+                        .build()
+        );
+        for (int i = 0; i < 100; i++) {
+            cache.put("testKey" + i, String.valueOf(i).repeat(10_000));
+        }
+
+        long numberOfPresentEntries = IntStream.range(0, 100)
+                .filter(i -> cache.containsKey("testKey" + i))
+                .count();
+        assertTrue(numberOfPresentEntries > 0);
+        assertTrue(numberOfPresentEntries < 100);
+        assertTrue(cache.containsKey("testKey99"));
+    }
+
+    @Test
+    void shouldPublishCacheMetricsToMeterRegistry() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        FintCacheManager cacheManager = new FintEhCacheManager(
+                FintCacheOptions.builder().timeToLive(Duration.ofMinutes(1)).heapSize(10L).build(),
+                null,
+                meterRegistry
+        );
+        FintCache<String, Integer> cache = cacheManager.createCache("testAlias", String.class, Integer.class);
+
+        cache.put("testKey1", 1);
+        cache.put("testKey2", 2);
+        cache.getOptional("testKey1");
+        cache.get(List.of("testKey2", "testKey3"));
+        cache.remove("testKey1");
+
+        assertEquals(2, meterRegistry.get("cache.gets").tags("cache", "testAlias", "result", "hit").functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "testAlias", "result", "miss").functionCounter().count());
+        assertEquals(2, meterRegistry.get("cache.puts").tags("cache", "testAlias").functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.removals").tags("cache", "testAlias").functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.size").tags("cache", "testAlias").gauge().value());
+        assertEquals(2, meterRegistry.get("cache.operations").tags("cache", "testAlias", "operation", "put").timer().count());
+    }
+
+    @Test
+    void shouldPublishWriteBehindQueueSizeToMeterRegistry() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        FintCacheManager cacheManager = new FintEhCacheManager(
+                FintCacheOptions.builder().timeToLive(Duration.ofMinutes(1)).heapSize(10L).build(),
+                null,
+                meterRegistry
+        );
+        List<Map<String, Integer>> writtenBatches = new ArrayList<>();
+        FintCache<String, Integer> cache = cacheManager.createCache(
+                "testAlias",
+                String.class,
+                Integer.class,
+                FintCacheOptions.builder()
+                        .writeBehind(FintCacheWriteBehindOptions.builder()
+                                .writer(new FintCacheWriter<String, Integer>() {
+                                    @Override
+                                    public void writeAll(Map<String, Integer> entries) {
+                                        writtenBatches.add(Map.copyOf(entries));
+                                    }
+
+                                    @Override
+                                    public void deleteAll(Set<String> keys) {
+                                    }
+                                })
+                                .maxWriteDelay(Duration.ofMinutes(1))
+                                .build())
+                        .build()
+        );
+
+        cache.put("testKey1", 1);
+        cache.put("testKey2", 2);
+        assertEquals(2, meterRegistry.get("cache.write.behind.queue.size").tags("cache", "testAlias").gauge().value());
+
+        cacheManager.close();
+
+        assertEquals(List.of(Map.of("testKey1", 1, "testKey2", 2)), writtenBatches);
+        assertEquals(0, meterRegistry.get("cache.write.behind.queue.size").tags("cache", "testAlias").gauge().value());
+        assertEquals(2, meterRegistry.get("cache.write.behind.writes").tags("cache", "testAlias").functionCounter().count());
+    }
+
+    @Test
+    void shouldRemoveCacheMetricsWhenCacheIsRemoved() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        FintCacheManager cacheManager = new FintEhCacheManager(
+                FintCacheOptions.builder().timeToLive(Duration.ofMinutes(1)).heapSize(10L).build(),
+                null,
+                meterRegistry
+        );
+        cacheManager.createCache("testAlias", String.class, Integer.class);
+
+        cacheManager.removeCache("testAlias");
+
+        assertNull(meterRegistry.find("cache.gets").tags("cache", "testAlias").functionCounter());
+    }
 }
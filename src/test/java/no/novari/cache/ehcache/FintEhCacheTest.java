@@ -1,13 +1,25 @@
 package no.novari.cache.ehcache;
 
+import no.novari.cache.FintCache;
 import no.novari.cache.FintCacheEvent;
 import no.novari.cache.FintCacheEventListener;
 import no.novari.cache.FintCacheManager;
 import no.novari.cache.FintCacheOptions;
+import no.novari.cache.FintCacheSerializer;
 import no.novari.cache.FintCacheTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
 import java.util.function.Consumer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 class FintEhCacheTest extends FintCacheTest {
 
     @Override
@@ -34,4 +46,124 @@ class FintEhCacheTest extends FintCacheTest {
         return new TestEventListener<>(observer::consume);
     }
 
+    @Test
+    void shouldKeepEntriesExceedingHeapSizeInOffHeapTier() {
+        FintCache<String, Integer> cache = fintCacheManager.createCache(
+                "testAlias",
+                String.class,
+                Integer.class,
+                FintCacheOptions.builder()
+                        .heapSize(1L)
+                        .offHeapSize(DataSize.ofMegabytes(1))
+                        .build()
+        );
+        cache.put("testKey1", 1);
+        cache.put("testKey2", 2);
+        cache.put("testKey3", 3);
+
+        assertEquals(3, cache.getNumberOfEntries());
+        assertEquals(1, cache.get("testKey1"));
+        assertEquals(2, cache.get("testKey2"));
+        assertEquals(3, cache.get("testKey3"));
+    }
+
+    @Test
+    void shouldKeepEntriesExceedingHeapSizeInDiskTier(@TempDir Path storageDirectory) {
+        try (FintCacheManager cacheManager = new FintEhCacheManager(
+                FintCacheOptions.builder().timeToLive(Duration.ofMinutes(1)).heapSize(1L).build(),
+                storageDirectory
+        )) {
+            FintCache<String, Integer> cache = cacheManager.createCache(
+                    "testAlias",
+                    String.class,
+                    Integer.class,
+                    FintCacheOptions.builder()
+                            .offHeapSize(DataSize.ofMegabytes(1))
+                            .diskSize(DataSize.ofMegabytes(10))
+                            .build()
+            );
+            cache.put("testKey1", 1);
+            cache.put("testKey2", 2);
+
+            assertEquals(2, cache.getNumberOfEntries());
+            assertEquals(1, cache.get("testKey1"));
+            assertEquals(2, cache.get("testKey2"));
+        }
+    }
+
+    @Test
+    void shouldThrowExceptionWhenCreatingDiskTierWithoutStorageDirectory() {
+        assertThrows(IllegalArgumentException.class, () -> fintCacheManager.createCache(
+                "testAlias",
+                String.class,
+                Integer.class,
+                FintCacheOptions.builder().diskSize(DataSize.ofMegabytes(10)).build()
+        ));
+    }
+
+    @Test
+    void shouldUseGivenValueSerializerForOffHeapTier() {
+        FintCache<String, String> cache = fintCacheManager.createCache(
+                "testAlias",
+                String.class,
+                String.class,
+                FintCacheOptions.builder()
+                        .heapSize(1L)
+                        .offHeapSize(DataSize.ofMegabytes(1))
+                        .valueSerializer(new FintCacheSerializer<String>() {
+                            @Override
+                            public byte[] serialize(String object) {
+                                return object.toUpperCase().getBytes(StandardCharsets.UTF_8);
+                            }
+
+                            @Override
+                            public String deserialize(byte[] bytes) {
+                                return new String(bytes, StandardCharsets.UTF_8);
+                            }
+                        })
+                        .build()
+        );
+        cache.put("testKey1", "value");
+        cache.put("testKey2", "otherValue");
+
+        assertEquals("VALUE", cache.get("testKey1"));
+    }
+
+    @Test
+    void shouldReloadPersistentCacheEntriesAfterRestart(@TempDir Path storageDirectory) {
+        FintCacheOptions defaultCacheOptions = FintCacheOptions.builder()
+                .timeToLive(Duration.ofMinutes(1))
+                .heapSize(10L)
+                .build();
+        FintCacheOptions persistentCacheOptions = FintCacheOptions.builder()
+                .diskSize(DataSize.ofMegabytes(10))
+                .persistent(true)
+                .build();
+
+        try (FintCacheManager cacheManager = new FintEhCacheManager(defaultCacheOptions, storageDirectory)) {
+            cacheManager.createCache("testAlias", String.class, Integer.class, persistentCacheOptions)
+                    .put(Map.of("testKey1", 1, "testKey2", 2));
+        }
+
+        try (FintCacheManager restartedCacheManager = new FintEhCacheManager(defaultCacheOptions, storageDirectory)) {
+            FintCache<String, Integer> cache = restartedCacheManager.createCache(
+                    "testAlias", String.class, Integer.class, persistentCacheOptions
+            );
+
+            assertEquals(2, cache.getNumberOfEntries());
+            assertEquals(1, cache.get("testKey1"));
+            assertEquals(2, cache.get("testKey2"));
+        }
+    }
+
+    @Test
+    void shouldThrowExceptionWhenCreatingPersistentCacheWithoutDiskTier() {
+        assertThrows(IllegalArgumentException.class, () -> fintCacheManager.createCache(
+                "testAlias",
+                String.class,
+                Integer.class,
+                FintCacheOptions.builder().persistent(true).build()
+        ));
+    }
+
 }